@@ -0,0 +1,15 @@
+package org.ormi.priv.tfa.orderflow.productregistry.application;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+
+/**
+ * Résultat d'une commande acceptée : le produit concerné et sa nouvelle version.
+ *
+ * <p>La version est la séquence de l'événement émis ; le côté lecture l'atteint une fois
+ * cet événement projeté.</p>
+ *
+ * @param productId l'identifiant du produit
+ * @param version   la version du produit après la commande
+ */
+public record CommandResult(ProductId productId, long version) {
+}
@@ -8,7 +8,6 @@ import org.ormi.priv.tfa.orderflow.cqrs.infra.persistence.OutboxRepository;
 import org.ormi.priv.tfa.orderflow.kernel.Product;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1.ProductRegistered;
 import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductRepository;
-import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
 import org.ormi.priv.tfa.orderflow.productregistry.application.ProductCommand.RegisterProductCommand;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -65,11 +64,11 @@ public class RegisterProductService {
       * et publie le message via la boîte de sortie.</p>
       *
       * @param cmd la commande d'enregistrement
-      * @return l'identifiant du produit créé
+      * @return l'identifiant et la version du produit créé
       * @throws IllegalArgumentException si le SKU existe déjà
       */
     @Transactional
-    public ProductId handle(RegisterProductCommand cmd) throws IllegalArgumentException {
+    public CommandResult handle(RegisterProductCommand cmd) throws IllegalArgumentException {
         if (repository.existsBySkuId(cmd.skuId())) {
             throw new IllegalArgumentException(String.format("SKU already exists: %s", cmd.skuId()));
         }
@@ -86,6 +85,6 @@ public class RegisterProductService {
         outbox.publish(OutboxEntity.Builder()
                 .sourceEvent(persistedEvent)
                 .build());
-        return product.getId();
+        return new CommandResult(product.getId(), evt.sequence());
     }
 }
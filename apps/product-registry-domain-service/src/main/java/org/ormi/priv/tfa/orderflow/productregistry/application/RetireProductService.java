@@ -32,7 +32,7 @@ public class RetireProductService {
     OutboxRepository outbox;
 
     @Transactional
-    public void retire(RetireProductCommand cmd) throws IllegalArgumentException {
+    public CommandResult retire(RetireProductCommand cmd) throws IllegalArgumentException {
         Product product = repository.findById(cmd.productId())
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
         EventEnvelope<ProductRetired> evt = product.retire();
@@ -43,5 +43,6 @@ public class RetireProductService {
         outbox.publish(OutboxEntity.Builder()
                 .sourceEvent(persistedEvent)
                 .build());
+        return new CommandResult(product.getId(), evt.sequence());
     }
 }
@@ -64,10 +64,11 @@ public class UpdateProductService {
      * Traite une commande de mise à jour du nom d'un produit.
      *
      * @param cmd la commande de mise à jour du nom
+     * @return le produit et sa nouvelle version
      * @throws IllegalArgumentException si le produit n'existe pas
      */
     @Transactional
-    public void handle(UpdateProductNameCommand cmd) throws IllegalArgumentException {
+    public CommandResult handle(UpdateProductNameCommand cmd) throws IllegalArgumentException {
         Product product = repository.findById(cmd.productId())
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
         EventEnvelope<ProductNameUpdated> event = product.updateName(cmd.newName());
@@ -81,10 +82,11 @@ public class UpdateProductService {
                 .sourceEvent(persistedEvent)
                 .build()
         );
+        return new CommandResult(product.getId(), event.sequence());
     }
 
     @Transactional
-    public void handle(UpdateProductDescriptionCommand cmd) throws IllegalArgumentException {
+    public CommandResult handle(UpdateProductDescriptionCommand cmd) throws IllegalArgumentException {
         Product product = repository.findById(cmd.productId())
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
         EventEnvelope<ProductDescriptionUpdated> event = product.updateDescription(cmd.newDescription());
@@ -98,5 +100,6 @@ public class UpdateProductService {
                 .sourceEvent(persistedEvent)
                 .build()
         );
+        return new CommandResult(product.getId(), event.sequence());
     }
 }
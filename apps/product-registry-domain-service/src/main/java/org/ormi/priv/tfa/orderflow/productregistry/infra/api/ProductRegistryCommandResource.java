@@ -8,6 +8,7 @@ import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.write.RegisterPr
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.write.UpdateProductDescriptionParamsDto;
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.write.UpdateProductNameParamsDto;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.productregistry.application.CommandResult;
 import org.ormi.priv.tfa.orderflow.productregistry.application.ProductCommand.RetireProductCommand;
 import org.ormi.priv.tfa.orderflow.productregistry.application.ProductCommand.UpdateProductDescriptionCommand;
 import org.ormi.priv.tfa.orderflow.productregistry.application.ProductCommand.UpdateProductNameCommand;
@@ -16,6 +17,7 @@ import org.ormi.priv.tfa.orderflow.productregistry.application.RetireProductServ
 import org.ormi.priv.tfa.orderflow.productregistry.application.UpdateProductService;
 import org.ormi.priv.tfa.orderflow.productregistry.infra.web.dto.CommandDtoMapper;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -42,6 +44,10 @@ import jakarta.ws.rs.core.UriInfo;
  *   <li>DELETE /products/{id} : retirer un produit</li>
  * </ul>
  *
+ * <p>Chaque réponse porte la nouvelle version du produit dans l'en-tête
+ * {@value #AGGREGATE_VERSION_HEADER} : la passer en {@code minVersion} à
+ * {@code GET /products/{id}} du service de lecture garantit de relire sa propre écriture.</p>
+ *
  * @see RegisterProductService pour l'enregistrement
  * @see UpdateProductService pour les mises à jour
  * @see RetireProductService pour la retraite
@@ -51,6 +57,8 @@ import jakarta.ws.rs.core.UriInfo;
 @Produces(MediaType.APPLICATION_JSON)
 public class ProductRegistryCommandResource {
 
+    public static final String AGGREGATE_VERSION_HEADER = "X-Aggregate-Version";
+
     private final CommandDtoMapper mapper;
     private final RegisterProductService registerProductService;
     private final RetireProductService retireProductService;
@@ -70,35 +78,44 @@ public class ProductRegistryCommandResource {
 
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<Void> registerProduct(RegisterProductCommandDto cmd, @Context UriInfo uriInfo) {
-        final ProductId productId = registerProductService.handle(mapper.toCommand(cmd));
-        return RestResponse.created(
-                URI.create(uriInfo.getAbsolutePathBuilder().path("/products/" + productId.value()).build().toString()));
+        final CommandResult result = registerProductService.handle(mapper.toCommand(cmd));
+        return RestResponse.ResponseBuilder.<Void>created(
+                URI.create(uriInfo.getAbsolutePathBuilder().path("/products/" + result.productId().value()).build().toString()))
+                .header(AGGREGATE_VERSION_HEADER, result.version())
+                .build();
     }
 
     @DELETE
     @Path("/{id}")
+    @RunOnVirtualThread
     public RestResponse<Void> retireProduct(@PathParam("id") String productId) {
-        retireProductService.retire(new RetireProductCommand(new ProductId(UUID.fromString(productId))));
-        return RestResponse.noContent();
+        return noContent(retireProductService.retire(new RetireProductCommand(new ProductId(UUID.fromString(productId)))));
     }
 
     @PATCH
     @Path("/{id}/name")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<Void> updateProductName(@PathParam("id") String productId, UpdateProductNameParamsDto params) {
-        updateProductService
-                .handle(new UpdateProductNameCommand(new ProductId(UUID.fromString(productId)), params.name()));
-        return RestResponse.noContent();
+        return noContent(updateProductService
+                .handle(new UpdateProductNameCommand(new ProductId(UUID.fromString(productId)), params.name())));
     }
 
     @PATCH
     @Path("/{id}/description")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<Void> updateProductDescription(@PathParam("id") String productId,
             UpdateProductDescriptionParamsDto params) {
-        updateProductService.handle(new UpdateProductDescriptionCommand(new ProductId(UUID.fromString(productId)),
-                params.description()));
-        return RestResponse.noContent();
+        return noContent(updateProductService.handle(new UpdateProductDescriptionCommand(
+                new ProductId(UUID.fromString(productId)), params.description())));
+    }
+
+    private static RestResponse<Void> noContent(CommandResult result) {
+        return RestResponse.ResponseBuilder.<Void>noContent()
+                .header(AGGREGATE_VERSION_HEADER, result.version())
+                .build();
     }
 }
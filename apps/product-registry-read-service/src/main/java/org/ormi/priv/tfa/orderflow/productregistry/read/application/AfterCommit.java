@@ -0,0 +1,59 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Actions différées jusqu'à l'issue de la transaction courante.
+ *
+ * <p>Les caches, index et diffusions du service de lecture ne publient une projection
+ * qu'une fois sa transaction validée : une annulation ne laisse ainsi aucune trace en
+ * mémoire. Les actions s'exécutent sur le thread qui termine la transaction ; elles
+ * doivent être brèves et ne jamais bloquer.</p>
+ */
+@ApplicationScoped
+public class AfterCommit {
+
+    private final TransactionSynchronizationRegistry transactions;
+
+    @Inject
+    public AfterCommit(TransactionSynchronizationRegistry transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Exécute l'action si la transaction courante est validée ; rien sinon.
+     *
+     * @param onCommit l'action
+     */
+    public void register(Runnable onCommit) {
+        register(onCommit, () -> {
+        });
+    }
+
+    /**
+     * Exécute l'une ou l'autre action selon l'issue de la transaction courante.
+     *
+     * @param onCommit   l'action si la transaction est validée
+     * @param onRollback l'action si elle est annulée
+     */
+    public void register(Runnable onCommit, Runnable onRollback) {
+        transactions.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
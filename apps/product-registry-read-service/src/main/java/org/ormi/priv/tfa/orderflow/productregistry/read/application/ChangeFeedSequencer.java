@@ -0,0 +1,67 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Attribution des positions du flux des changements.
+ *
+ * <p>Chaque projection enregistre son produit comme changé, sans position : elle ne prend
+ * aucun verrou global et les partitions de l'outbox restent parallèles. Un thread dédié
+ * attribue ensuite les positions par lots, dans une transaction à lui ; comme il est seul
+ * à le faire, un lot est validé avant que le suivant ne commence, et un client du flux ne
+ * voit jamais apparaître une position inférieure à celles qu'il a déjà lues.</p>
+ */
+@ApplicationScoped
+public class ChangeFeedSequencer {
+
+    private static final Logger LOG = Logger.getLogger(ChangeFeedSequencer.class);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int INTERVAL_MS = 200;
+
+    private final ProductSummaryRepository repository;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "change-feed-sequencer"));
+
+    @Inject
+    public ChangeFeedSequencer(ProductSummaryRepository repository) {
+        this.repository = repository;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        scheduler.scheduleWithFixedDelay(this::flush, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        scheduler.shutdownNow();
+    }
+
+    private void flush() {
+        try {
+            int sequenced;
+            do {
+                sequenced = sequence();
+            } while (sequenced == BATCH_SIZE);
+        } catch (Exception e) {
+            LOG.error("Change feed sequencing failed, retrying later", e);
+        }
+    }
+
+    @ActivateRequestContext
+    @Transactional
+    protected int sequence() {
+        return repository.sequencePendingChanges(BATCH_SIZE);
+    }
+}
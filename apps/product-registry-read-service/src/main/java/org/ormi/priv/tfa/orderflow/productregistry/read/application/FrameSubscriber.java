@@ -0,0 +1,198 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.Frame;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+
+import io.smallrye.mutiny.subscription.MultiEmitter;
+
+/**
+ * Un abonné à un flux d'événements encodés et son tampon. Le tampon est rempli par un
+ * thread de diffusion et vidé, dans la limite de la demande du client, par le premier
+ * thread qui le trouve non vide.
+ *
+ * @see ProductEventBroadcaster
+ * @see LiveSearchSubscriptions
+ */
+final class FrameSubscriber {
+
+    private final MultiEmitter<? super Frame> emitter;
+    private final OverflowPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+    /** Tampon de {@link OverflowPolicy#CONFLATE_BY_PRODUCT}, ordonné par dernière mise à jour. */
+    private final LinkedHashMap<String, Frame> latestByProduct = new LinkedHashMap<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    /**
+     * Abonné repris sur un seul produit : seuls les événements de séquence supérieure à
+     * {@link #lastSequence} sont émis.
+     */
+    private final boolean ordered;
+    /** Séquence du dernier événement émis, ou reçu par le client avant la reprise. */
+    private long lastSequence;
+    /** Rejeu en cours : le direct est mis en attente, rien n'est émis. */
+    private boolean replaying;
+    /** Rejeu tronqué : le flux se termine une fois le tampon vidé. */
+    private boolean completeWhenDrained;
+
+    FrameSubscriber(MultiEmitter<? super Frame> emitter, OverflowPolicy policy) {
+        this.emitter = emitter;
+        this.policy = policy;
+        this.ordered = false;
+    }
+
+    /**
+     * Abonné à un seul produit, repris après une coupure : le direct est mis en attente
+     * jusqu'à {@link #resume}, et tout événement déjà reçu par le client est écarté.
+     *
+     * @param emitter      l'émetteur du flux
+     * @param policy       le traitement d'un tampon plein
+     * @param resumedAfter la séquence du dernier événement reçu par le client
+     */
+    FrameSubscriber(MultiEmitter<? super Frame> emitter, OverflowPolicy policy, long resumedAfter) {
+        this.emitter = emitter;
+        this.policy = policy;
+        this.ordered = true;
+        this.lastSequence = resumedAfter;
+        this.replaying = true;
+    }
+
+    /**
+     * Place les événements rejoués devant le direct reçu pendant le rejeu, puis reprend
+     * l'émission. Un événement déjà émis, rejoué ou reçu en direct, n'est jamais réémis.
+     *
+     * @param replayed  les événements manqués, dans l'ordre des séquences
+     * @param truncated vrai si d'autres événements manqués suivent
+     */
+    void resume(List<Frame> replayed, boolean truncated) {
+        lock.lock();
+        try {
+            if (truncated) {
+                // Le direct reçu est postérieur à un trou : le client reprendra plus loin
+                queue.clear();
+                latestByProduct.clear();
+                completeWhenDrained = true;
+            }
+            for (int i = replayed.size() - 1; i >= 0; i--) {
+                queue.addFirst(replayed.get(i));
+            }
+            replaying = false;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    void offer(Frame element) {
+        if (emitter.isCancelled()) {
+            return;
+        }
+        boolean overflow = false;
+        lock.lock();
+        try {
+            if (completeWhenDrained || (ordered && element.sequence() <= lastSequence)) {
+                return;
+            }
+            switch (policy) {
+                case DROP_OLDEST -> {
+                    if (queue.size() == ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE) {
+                        queue.poll();
+                    }
+                    queue.add(element);
+                }
+                case CONFLATE_BY_PRODUCT -> {
+                    latestByProduct.remove(element.productId());
+                    if (latestByProduct.size() == ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE) {
+                        final Iterator<String> oldest = latestByProduct.keySet().iterator();
+                        oldest.next();
+                        oldest.remove();
+                    }
+                    latestByProduct.put(element.productId(), element);
+                }
+                case DISCONNECT -> {
+                    overflow = queue.size() == ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE;
+                    if (!overflow) {
+                        queue.add(element);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (overflow) {
+            emitter.fail(new IllegalStateException(
+                    "Subscriber too slow, more than " + ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE + " pending product events"));
+            return;
+        }
+        drain();
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (emitter.requested() > 0 && !emitter.isCancelled()) {
+                final Frame next = poll();
+                if (next == null) {
+                    break;
+                }
+                emitter.emit(next);
+            }
+            if (isDrainedForCompletion()) {
+                emitter.complete();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private Frame poll() {
+        lock.lock();
+        try {
+            if (replaying) {
+                return null;
+            }
+            Frame next;
+            do {
+                next = next();
+            } while (next != null && ordered && next.sequence() <= lastSequence);
+            if (next != null && ordered) {
+                lastSequence = next.sequence();
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Frame next() {
+        // Les événements rejoués sont dans la file quelle que soit la politique
+        final Frame queued = queue.poll();
+        if (queued != null || policy != OverflowPolicy.CONFLATE_BY_PRODUCT) {
+            return queued;
+        }
+        final Iterator<Frame> it = latestByProduct.values().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        final Frame next = it.next();
+        it.remove();
+        return next;
+    }
+
+    private boolean isDrainedForCompletion() {
+        lock.lock();
+        try {
+            return completeWhenDrained && queue.isEmpty() && latestByProduct.isEmpty() && !emitter.isCancelled();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
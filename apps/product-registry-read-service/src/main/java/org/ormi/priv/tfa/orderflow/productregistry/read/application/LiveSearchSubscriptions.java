@@ -0,0 +1,239 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.Frame;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.vertx.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Recherches par motif de SKU suivies en direct.
+ *
+ * <p>Chaque motif suivi est compilé une fois et partagé par tous ses abonnés.
+ * {@link ProjectionDispatcher} signale chaque produit projeté après la validation de sa
+ * transaction ; un thread dédié compare l'ancien et le nouveau SKU à chaque motif, et
+ * remet aux abonnés l'entrée du produit dans le résultat, sa sortie ou sa mise à jour. La
+ * recherche n'est jamais relancée.</p>
+ *
+ * <p>Comme pour {@link ProductEventBroadcaster}, chaque changement est encodé une fois
+ * pour tous les abonnés, et chaque abonné a son propre tampon borné.</p>
+ */
+@ApplicationScoped
+public class LiveSearchSubscriptions {
+
+    private static final Logger LOG = Logger.getLogger(LiveSearchSubscriptions.class);
+    /** Produits projetés en attente d'évaluation ; au-delà, les plus anciens sont perdus. */
+    private static final int RING_SIZE = 8_192;
+
+    private final AfterCommit afterCommit;
+    private final SearchChangeSerializer serializer;
+    private final BlockingQueue<Projected> ring = new ArrayBlockingQueue<>(RING_SIZE);
+    private final AtomicLong ringDropped = new AtomicLong();
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "live-search-publisher"));
+    private final Map<String, StandingQuery> byPattern = new ConcurrentHashMap<>();
+
+    @Inject
+    public LiveSearchSubscriptions(
+            AfterCommit afterCommit,
+            SearchChangeSerializer serializer) {
+        this.afterCommit = afterCommit;
+        this.serializer = serializer;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        publisher.execute(this::publish);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        publisher.shutdownNow();
+    }
+
+    /**
+     * Évalue les recherches suivies sur le produit projeté, une fois la transaction
+     * courante validée. L'appel ne bloque jamais.
+     *
+     * @param previousSkuId le SKU avant la projection, vide pour un nouveau produit
+     * @param current       le résumé projeté
+     * @param eventType     le type de l'événement projeté
+     * @param occurredAt    l'instant de l'événement
+     * @param sequence      la séquence de l'événement dans son agrégat
+     */
+    public void onProjected(Optional<SkuId> previousSkuId, ProductSummary current, String eventType,
+            Instant occurredAt, long sequence) {
+        final Projected projected = new Projected(previousSkuId, current, eventType, occurredAt, sequence);
+        afterCommit.register(() -> enqueue(projected));
+    }
+
+    /**
+     * Suit une recherche par motif de SKU.
+     *
+     * @param skuIdPattern le motif recherché comme sous-chaîne, jokers SQL compris
+     * @param policy       le traitement d'un tampon d'abonné plein
+     * @return les changements du résultat de la recherche, encodés en JSON
+     */
+    public Multi<Buffer> subscribe(String skuIdPattern, OverflowPolicy policy) {
+        return Multi.createFrom().<Frame>emitter(emitter -> {
+            final FrameSubscriber subscriber = new FrameSubscriber(emitter, policy);
+            // Ajout et retrait sous le verrou de l'entrée, comme pour les abonnements par produit
+            byPattern.compute(skuIdPattern, (pattern, query) -> {
+                final StandingQuery standing = query != null ? query : new StandingQuery(matcher(pattern));
+                standing.subscribers().add(subscriber);
+                return standing;
+            });
+            LOG.debugf("Subscriber added for search %s", skuIdPattern);
+            emitter.onRequest(requested -> subscriber.drain());
+            emitter.onTermination(() -> {
+                byPattern.computeIfPresent(skuIdPattern, (pattern, query) -> {
+                    query.subscribers().remove(subscriber);
+                    return query.subscribers().isEmpty() ? null : query;
+                });
+                LOG.debugf("Subscriber removed for search %s", skuIdPattern);
+            });
+        }).map(Frame::body);
+    }
+
+    private void enqueue(Projected projected) {
+        // Tampon plein : le plus ancien cède la place, la projection n'attend pas
+        while (!ring.offer(projected)) {
+            if (ring.poll() != null && ringDropped.incrementAndGet() % RING_SIZE == 1) {
+                LOG.warnf("Live search ring full, %d projected products dropped so far", ringDropped.get());
+            }
+        }
+    }
+
+    private void publish() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final Projected projected;
+            try {
+                projected = ring.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                fanOut(projected);
+            } catch (Exception e) {
+                LOG.error("Live search evaluation failed for " + projected.current().getId().value(), e);
+            }
+        }
+    }
+
+    private void fanOut(Projected projected) {
+        // Au plus un encodage par nature de changement, quel que soit le nombre de motifs
+        final Map<Change, Frame> frames = new EnumMap<>(Change.class);
+        byPattern.values().forEach(query -> query.evaluate(projected.previousSkuId(),
+                projected.current().getSkuId()).ifPresent(change -> {
+                    final Frame frame = frames.computeIfAbsent(change, c -> encode(projected, c));
+                    query.subscribers().forEach(subscriber -> subscriber.offer(frame));
+                }));
+    }
+
+    private Frame encode(Projected projected, Change change) {
+        return new Frame(
+                projected.current().getId().value().toString(),
+                projected.sequence(),
+                Buffer.buffer(serializer.serialize(new SearchChange(
+                        change, projected.eventType(), projected.current(), projected.occurredAt()))));
+    }
+
+    /**
+     * Compile un motif pour l'évaluer sur un SKU : arithmétique sur le SKU empaqueté comme
+     * {@link SkuIndex}, ou expression régulière équivalente au {@code LIKE} de la base si le
+     * motif contient des jokers ou des échappements.
+     */
+    static Predicate<SkuId> matcher(String pattern) {
+        return SkuPattern.compile(pattern)
+                .<Predicate<SkuId>>map(compiled -> skuId -> compiled.matches(skuId.packed()))
+                .orElseGet(() -> likeMatcher(pattern));
+    }
+
+    private static Predicate<SkuId> likeMatcher(String pattern) {
+        final StringBuilder regex = new StringBuilder(".*");
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        final Pattern compiled = Pattern.compile(regex.append(".*").toString(), Pattern.DOTALL);
+        return skuId -> compiled.matcher(skuId.value()).matches();
+    }
+
+    /**
+     * Changement du résultat d'une recherche.
+     */
+    public enum Change {
+        /** Le produit entre dans le résultat (nouveau produit, ou SKU modifié). */
+        ENTERED,
+        /** Le produit sort du résultat (SKU modifié). */
+        EXITED,
+        /** Le produit reste dans le résultat et a changé. */
+        UPDATED
+    }
+
+    /**
+     * Un changement du résultat d'une recherche, remis à ses abonnés.
+     *
+     * @param change     la nature du changement
+     * @param eventType  le type de l'événement projeté
+     * @param product    le résumé du produit après l'événement
+     * @param occurredAt l'instant de l'événement
+     */
+    public record SearchChange(Change change, String eventType, ProductSummary product, Instant occurredAt) {
+    }
+
+    private record Projected(Optional<SkuId> previousSkuId, ProductSummary current, String eventType,
+            Instant occurredAt, long sequence) {
+    }
+
+    /**
+     * Un motif suivi et ses abonnés.
+     */
+    record StandingQuery(Predicate<SkuId> matcher, Set<FrameSubscriber> subscribers) {
+
+        StandingQuery(Predicate<SkuId> matcher) {
+            this(matcher, ConcurrentHashMap.newKeySet());
+        }
+
+        Optional<Change> evaluate(Optional<SkuId> previous, SkuId current) {
+            final boolean was = previous.isPresent() && matcher.test(previous.get());
+            final boolean is = matcher.test(current);
+            if (was && is) {
+                return Optional.of(Change.UPDATED);
+            }
+            if (was) {
+                return Optional.of(Change.EXITED);
+            }
+            return is ? Optional.of(Change.ENTERED) : Optional.empty();
+        }
+    }
+}
@@ -1,44 +1,397 @@
 package org.ormi.priv.tfa.orderflow.productregistry.read.application;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductStreamElementDto;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.vertx.core.buffer.Buffer;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
 
-
-@ApplicationScoped
 /**
- * Class ProductEventBroadcaster.
+ * Diffusion des événements produit aux flux abonnés.
+ *
+ * <p>La projection ne fait que déposer l'événement, après la validation de sa transaction,
+ * dans un tampon circulaire borné ; un thread dédié le vide et remet chaque événement aux
+ * abonnés. Chaque abonné a son propre tampon borné, vidé à la demande de son client : un
+ * client lent ne ralentit ni la projection ni les autres abonnés. Quand le tampon d'un
+ * abonné est plein, sa {@link OverflowPolicy} s'applique : celle demandée par le client,
+ * sinon celle de {@code product-registry.stream.overflow-policy}.</p>
  *
- * <p>Package: org.ormi.priv.tfa.orderflow.productregistry.read.application</p>
+ * <p>Les abonnements sont indexés par identifiant de produit : un événement n'est remis
+ * qu'aux abonnés de son produit et aux abonnés de tous les produits, sans parcourir ni
+ * filtrer les autres. S'abonner ou se désabonner coûte O(1) par produit suivi.</p>
+ *
+ * <p>Chaque événement est encodé en JSON une seule fois, par le thread de diffusion : tous
+ * les abonnés reçoivent le même {@link Buffer}, écrit tel quel sur leur connexion.</p>
+ *
+ * <p>Les derniers événements de chaque produit sont gardés en mémoire, avec leur séquence :
+ * un flux repris après une coupure rejoue ce qu'il a manqué depuis cette fin de journal, ou
+ * depuis le journal d'événements si elle ne remonte pas assez loin, puis passe au direct.</p>
  */
+@ApplicationScoped
 public class ProductEventBroadcaster {
 
-    private final CopyOnWriteArrayList<MultiEmitter<? super ProductStreamElementDto>> emitters = new CopyOnWriteArrayList<>();
+    private static final Logger LOG = Logger.getLogger(ProductEventBroadcaster.class);
+    /** Événements validés en attente de diffusion ; au-delà, les plus anciens sont perdus. */
+    private static final int RING_SIZE = 8_192;
+    /** Événements en attente par abonné. */
+    static final int SUBSCRIBER_BUFFER_SIZE = 256;
+    static final String TAILS_CACHE_NAME = "product-event-tails";
+    /** Événements gardés par produit pour la reprise des flux. */
+    private static final int TAIL_SIZE = 64;
+    private static final long MAX_TAILS = 10_000;
+    /**
+     * Événements rejoués au plus par reprise : au-delà, le flux se termine après eux et le
+     * client reprend depuis le dernier reçu.
+     */
+    static final int MAX_REPLAY = SUBSCRIBER_BUFFER_SIZE;
+    private static final int REPLAY_THREADS = 4;
 
-    public void broadcast(ProductStreamElementDto element) {
-        emitters.forEach(emitter -> emitter.emit(element));
+    private final AfterCommit afterCommit;
+    private final ObjectMapper objectMapper;
+    private final OverflowPolicy defaultOverflowPolicy;
+    private final BlockingQueue<ProductEvent> ring = new ArrayBlockingQueue<>(RING_SIZE);
+    private final AtomicLong ringDropped = new AtomicLong();
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "product-event-publisher"));
+    private final ExecutorService replayer = Executors.newFixedThreadPool(REPLAY_THREADS,
+            r -> new Thread(r, "product-event-replay"));
+    private final Map<String, Set<FrameSubscriber>> byProductId = new ConcurrentHashMap<>();
+    private final Set<FrameSubscriber> wildcard = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Tail> tails = Caffeine.newBuilder()
+            .maximumSize(MAX_TAILS)
+            .recordStats()
+            .build();
+
+    @Inject
+    public ProductEventBroadcaster(
+            AfterCommit afterCommit,
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @ConfigProperty(name = "product-registry.stream.overflow-policy", defaultValue = "DROP_OLDEST")
+            OverflowPolicy defaultOverflowPolicy) {
+        this.afterCommit = afterCommit;
+        this.objectMapper = objectMapper;
+        this.defaultOverflowPolicy = defaultOverflowPolicy;
+        CaffeineCacheMetrics.monitor(registry, tails, TAILS_CACHE_NAME);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        publisher.execute(this::publish);
     }
 
-    public Multi<ProductStreamElementDto> stream() {
+    void onStop(@Observes ShutdownEvent event) {
+        publisher.shutdownNow();
+        replayer.shutdownNow();
+    }
+
+    /**
+     * Diffuse l'événement une fois la transaction courante validée ; rien n'est diffusé si
+     * elle est annulée. L'appel ne bloque jamais.
+     *
+     * @param element  l'événement
+     * @param sequence la séquence de l'événement dans son agrégat
+     */
+    public void broadcastOnCommit(ProductStreamElementDto element, long sequence) {
+        final ProductEvent event = new ProductEvent(element, sequence);
+        afterCommit.register(() -> enqueue(event));
+    }
+
+    /**
+     * @return le traitement d'un tampon d'abonné plein quand le client n'en demande pas
+     */
+    public OverflowPolicy defaultOverflowPolicy() {
+        return defaultOverflowPolicy;
+    }
+
+    /**
+     * @param policy le traitement d'un tampon d'abonné plein
+     * @return les événements de tous les produits, encodés en JSON avec leur séquence
+     */
+    public Multi<Frame> stream(OverflowPolicy policy) {
+        return Multi.createFrom().emitter(emitter -> {
+            final FrameSubscriber subscriber = new FrameSubscriber(emitter, policy);
+            wildcard.add(subscriber);
+            LOG.debug("Subscriber added for all products");
+            emitter.onRequest(requested -> subscriber.drain());
+            emitter.onTermination(() -> {
+                wildcard.remove(subscriber);
+                LOG.debug("Subscriber removed for all products");
+            });
+        });
+    }
+
+    /**
+     * @param productIds les identifiants des produits
+     * @param policy     le traitement d'un tampon d'abonné plein
+     * @return les événements de ces produits, encodés en JSON avec leur séquence
+     */
+    public Multi<Frame> streamByProductIds(List<String> productIds, OverflowPolicy policy) {
+        final List<String> distinct = productIds.stream().distinct().toList();
+        return Multi.createFrom().emitter(emitter -> {
+            final FrameSubscriber subscriber = new FrameSubscriber(emitter, policy);
+            distinct.forEach(productId -> subscribe(productId, subscriber));
+            LOG.debugf("Subscriber added for %d products", distinct.size());
+            emitter.onRequest(requested -> subscriber.drain());
+            emitter.onTermination(() -> {
+                distinct.forEach(productId -> unsubscribe(productId, subscriber));
+                LOG.debugf("Subscriber removed for %d products", distinct.size());
+            });
+        });
+    }
+
+    /**
+     * Reprend le flux d'un produit après une coupure : les événements postérieurs à la
+     * séquence donnée sont rejoués avant le direct, sans doublon. Ils sont lus dans la fin
+     * de journal en mémoire si elle remonte assez loin, sinon dans {@code history}, sur un
+     * thread dédié.
+     *
+     * @param productId    l'identifiant du produit
+     * @param lastSequence la séquence du dernier événement reçu par le client
+     * @param policy       le traitement d'un tampon d'abonné plein
+     * @param history      la lecture du journal d'événements
+     * @return les événements manqués puis les événements de ce produit
+     */
+    public Multi<Frame> resumeByProductId(String productId, long lastSequence, OverflowPolicy policy,
+            EventHistory history) {
         return Multi.createFrom().emitter(emitter -> {
-            emitters.add(emitter);
-            // TODO: log a debug, "New emitter added"
+            final FrameSubscriber subscriber = new FrameSubscriber(emitter, policy, lastSequence);
+            // Inscrit avant de lire la fin de journal : un événement diffusé entre-temps est
+            // reçu en direct ou lu dans la fin de journal, et l'abonné écarte les doublons
+            subscribe(productId, subscriber);
+            LOG.debugf("Subscriber resumed for product %s after %d", productId, lastSequence);
+            emitter.onRequest(requested -> subscriber.drain());
+            emitter.onTermination(() -> unsubscribe(productId, subscriber));
+            final Tail tail = tails.getIfPresent(productId);
+            final Optional<List<ProductEvent>> missed = tail != null
+                    ? tail.after(lastSequence)
+                    : Optional.empty();
+            if (missed.isPresent()) {
+                resume(emitter, subscriber, missed.get());
+                return;
+            }
+            replayer.execute(() -> {
+                final List<ProductEvent> events;
+                try {
+                    events = history.after(productId, lastSequence, MAX_REPLAY + 1);
+                } catch (Exception e) {
+                    LOG.error("Product event replay failed for " + productId, e);
+                    emitter.fail(e);
+                    return;
+                }
+                resume(emitter, subscriber, events);
+            });
+        });
+    }
+
+    private void resume(MultiEmitter<? super Frame> emitter, FrameSubscriber subscriber,
+            List<ProductEvent> missed) {
+        final boolean truncated = missed.size() > MAX_REPLAY;
+        final List<ProductEvent> replayed = truncated ? missed.subList(0, MAX_REPLAY) : missed;
+        final List<Frame> frames = new ArrayList<>(replayed.size());
+        try {
+            for (ProductEvent event : replayed) {
+                frames.add(encode(event));
+            }
+        } catch (JsonProcessingException e) {
+            emitter.fail(e);
+            return;
+        }
+        subscriber.resume(frames, truncated);
+    }
+
+    private void enqueue(ProductEvent event) {
+        // Tampon plein : le plus ancien cède la place, la projection n'attend pas
+        while (!ring.offer(event)) {
+            final ProductEvent dropped = ring.poll();
+            if (dropped == null) {
+                continue;
+            }
+            // Sa fin de journal aurait un trou : les reprises liront le journal d'événements
+            tails.invalidate(dropped.element().productId());
+            if (ringDropped.incrementAndGet() % RING_SIZE == 1) {
+                LOG.warnf("Product event ring full, %d events dropped so far", ringDropped.get());
+            }
+        }
+    }
+
+    private void publish() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final ProductEvent event;
+            try {
+                event = ring.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                fanOut(event);
+            } catch (Exception e) {
+                LOG.error("Product event fan-out failed for " + event.element().productId(), e);
+            }
+        }
+    }
 
-            // TODO: Hey! remove emitters, my RAM is melting! (and log for debugging)
-            // TODO: TODO
-            emitter.onTermination(() -> emitters.remove(emitter));
+    private void fanOut(ProductEvent event) throws JsonProcessingException {
+        final String productId = event.element().productId();
+        // Ajouté à la fin de journal avant de lire les abonnés : voir resumeByProductId
+        tails.get(productId, id -> new Tail()).append(event);
+        final Set<FrameSubscriber> subscribers = byProductId.get(productId);
+        if (wildcard.isEmpty() && subscribers == null) {
+            return;
+        }
+        // Encodé une fois pour tous les abonnés
+        final Frame frame = encode(event);
+        wildcard.forEach(subscriber -> subscriber.offer(frame));
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+    }
+
+    private Frame encode(ProductEvent event) throws JsonProcessingException {
+        return new Frame(event.element().productId(), event.sequence(),
+                Buffer.buffer(objectMapper.writeValueAsBytes(event.element())));
+    }
+
+    private void subscribe(String productId, FrameSubscriber subscriber) {
+        // Ajout et retrait sous le verrou de l'entrée : un ensemble vidé n'est pas retiré
+        // pendant qu'un abonné s'y ajoute
+        byProductId.compute(productId, (id, subscribers) -> {
+            final Set<FrameSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
         });
     }
 
-    // TODO: implement [Exercice 5]
-    // public Multi<ProductStreamElementDto> streamByProductId(String productId) {
-    // }
+    private void unsubscribe(String productId, FrameSubscriber subscriber) {
+        byProductId.computeIfPresent(productId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
 
-    // TODO: implement [Exercice 5]
-    // public Multi<ProductStreamElementDto> streamByProductIds(List<String> productIds) {
-    // }
+    /**
+     * Traitement d'un tampon d'abonné plein.
+     */
+    public enum OverflowPolicy {
+        /** Le plus ancien événement en attente est perdu. */
+        DROP_OLDEST,
+        /**
+         * Un seul événement en attente par produit, le plus récent : le client apprend que
+         * le produit a changé, sans le détail des changements intermédiaires.
+         */
+        CONFLATE_BY_PRODUCT,
+        /** Le flux de l'abonné se termine en erreur. */
+        DISCONNECT
+    }
+
+    /**
+     * Un événement et sa séquence dans son agrégat.
+     *
+     * @param element  l'événement
+     * @param sequence la séquence
+     */
+    public record ProductEvent(ProductStreamElementDto element, long sequence) {
+    }
+
+    /**
+     * Un événement encodé, partagé par tous ses abonnés.
+     *
+     * @param productId l'identifiant du produit
+     * @param sequence  la séquence de l'événement dans son agrégat
+     * @param body      l'événement en JSON
+     */
+    public record Frame(String productId, long sequence, Buffer body) {
+    }
+
+    /**
+     * Lecture du journal d'événements d'un produit, pour les reprises que la fin de journal
+     * en mémoire ne couvre pas.
+     */
+    @FunctionalInterface
+    public interface EventHistory {
+        /**
+         * @param productId l'identifiant du produit
+         * @param sequence  la dernière séquence connue (exclue)
+         * @param limit     le nombre maximal d'événements
+         * @return les événements suivants déjà projetés, dans l'ordre des séquences : le
+         *         flux ne doit pas devancer la vue
+         */
+        List<ProductEvent> after(String productId, long sequence, int limit);
+    }
+
+    /**
+     * Les derniers événements d'un produit, écrits par le thread de diffusion. Leurs
+     * séquences se suivent sans trou : un événement qui ne suit pas le dernier gardé
+     * recommence la fin de journal.
+     */
+    private static final class Tail {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<ProductEvent> events = new ArrayDeque<>(TAIL_SIZE);
+
+        void append(ProductEvent event) {
+            lock.lock();
+            try {
+                final ProductEvent last = events.peekLast();
+                if (last != null && event.sequence() <= last.sequence()) {
+                    return;
+                }
+                if (last != null && event.sequence() != last.sequence() + 1) {
+                    // Événements perdus avant la diffusion
+                    events.clear();
+                }
+                if (events.size() == TAIL_SIZE) {
+                    events.poll();
+                }
+                events.add(event);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @param sequence la dernière séquence connue
+         * @return les événements suivants, vide si la fin de journal ne remonte pas jusqu'à
+         *         la séquence suivante
+         */
+        Optional<List<ProductEvent>> after(long sequence) {
+            lock.lock();
+            try {
+                if (events.isEmpty() || events.peek().sequence() > sequence + 1) {
+                    return Optional.empty();
+                }
+                return Optional.of(events.stream().filter(event -> event.sequence() > sequence).toList());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 }
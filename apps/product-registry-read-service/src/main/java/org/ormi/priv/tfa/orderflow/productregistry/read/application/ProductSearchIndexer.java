@@ -0,0 +1,160 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSearchRepository;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Mise à jour différée de l'index plein texte.
+ *
+ * <p>{@link ProjectionDispatcher} signale chaque produit projeté après la validation de sa
+ * transaction ; les produits en attente sont réindexés par lots sur un thread dédié, en une
+ * requête par lot. La projection ne paie donc ni la tokenisation ni la mise à jour du GIN.</p>
+ *
+ * <p>La file est en mémoire : au démarrage, et après une reconstruction, les entrées en
+ * retard sur leur vue sont rattrapées depuis la base.</p>
+ */
+@ApplicationScoped
+public class ProductSearchIndexer {
+
+    private static final Logger LOG = Logger.getLogger(ProductSearchIndexer.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int FLUSH_INTERVAL_MS = 500;
+
+    private final ProductSearchRepository repository;
+    private final AfterCommit afterCommit;
+    private final SearchResultCache searchCache;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "search-indexer"));
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final Set<ProductId> pending = new LinkedHashSet<>();
+
+    @Inject
+    public ProductSearchIndexer(
+            ProductSearchRepository repository,
+            AfterCommit afterCommit,
+            SearchResultCache searchCache) {
+        this.repository = repository;
+        this.afterCommit = afterCommit;
+        this.searchCache = searchCache;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        scheduler.execute(this::catchUp);
+        scheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Met le produit en attente de réindexation, une fois la transaction courante validée.
+     *
+     * @param productId le produit projeté
+     */
+    public void onProjected(ProductId productId) {
+        afterCommit.register(() -> {
+            pendingLock.lock();
+            try {
+                pending.add(productId);
+            } finally {
+                pendingLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Planifie le rattrapage de tout l'index sur les vues ; à appeler quand les vues ont été
+     * réécrites hors projection (reconstruction).
+     */
+    public void requestCatchUp() {
+        scheduler.execute(this::catchUp);
+    }
+
+    private void flush() {
+        List<ProductId> batch;
+        while (!(batch = drain()).isEmpty()) {
+            try {
+                reindex(batch);
+            } catch (Exception e) {
+                LOG.error("Full-text reindex failed for " + batch.size() + " products, retrying later", e);
+                requeue(batch);
+                return;
+            }
+        }
+    }
+
+    private void catchUp() {
+        try {
+            int total = 0;
+            int reindexed;
+            do {
+                reindexed = reindexStale();
+                total += reindexed;
+            } while (reindexed == BATCH_SIZE);
+            LOG.infof("Full-text index caught up, %d products reindexed", total);
+        } catch (Exception e) {
+            LOG.error("Full-text index catch-up failed", e);
+        }
+    }
+
+    @ActivateRequestContext
+    @Transactional
+    protected void reindex(List<ProductId> batch) {
+        repository.reindex(batch);
+        searchCache.advanceOnCommit();
+    }
+
+    @ActivateRequestContext
+    @Transactional
+    protected int reindexStale() {
+        final int reindexed = repository.reindexStale(BATCH_SIZE);
+        if (reindexed > 0) {
+            searchCache.advanceOnCommit();
+        }
+        return reindexed;
+    }
+
+    private List<ProductId> drain() {
+        pendingLock.lock();
+        try {
+            final List<ProductId> batch = new ArrayList<>(Math.min(pending.size(), BATCH_SIZE));
+            final Iterator<ProductId> it = pending.iterator();
+            while (it.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(it.next());
+                it.remove();
+            }
+            return batch;
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void requeue(List<ProductId> batch) {
+        pendingLock.lock();
+        try {
+            pending.addAll(batch);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Lectures en attente d'une version minimale de vue (relecture de ses propres écritures).
+ *
+ * <p>Une lecture inscrite ici n'occupe aucun thread : {@link ProjectionDispatcher} publie
+ * chaque vue projetée après la validation de sa transaction, et les lectures qui
+ * attendaient cette version ou une version antérieure reçoivent directement son corps
+ * sérialisé, sans relire la base.</p>
+ *
+ * <p>Une attente non satisfaite au bout de {@link #TIMEOUT} se termine vide. Au-delà de
+ * {@link #MAX_WAITERS} attentes simultanées, les nouvelles se terminent vides aussitôt.</p>
+ */
+@ApplicationScoped
+public class ProductVersionWaiters {
+
+    /** Durée maximale d'une attente. */
+    static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_WAITERS = 10_000;
+
+    private final AfterCommit afterCommit;
+    private final Duration timeout;
+    private final int maxWaiters;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<ProductId, List<Waiter>> waiters = new HashMap<>();
+    private int size;
+
+    @Inject
+    public ProductVersionWaiters(AfterCommit afterCommit) {
+        this(afterCommit, TIMEOUT, MAX_WAITERS);
+    }
+
+    ProductVersionWaiters(AfterCommit afterCommit, Duration timeout, int maxWaiters) {
+        this.afterCommit = afterCommit;
+        this.timeout = timeout;
+        this.maxWaiters = maxWaiters;
+    }
+
+    /**
+     * Inscrit une attente de la version donnée.
+     *
+     * <p>L'appelant doit relire la vue après l'inscription : une projection validée juste
+     * avant n'a pas pu la réveiller. S'il trouve la version, il complète lui-même la
+     * promesse.</p>
+     *
+     * @param productId  l'identifiant du produit
+     * @param minVersion la version attendue
+     * @return la vue dès qu'elle atteint la version, ou vide à l'expiration
+     */
+    public CompletableFuture<Optional<SerializedProductView>> await(ProductId productId, long minVersion) {
+        final Waiter waiter = new Waiter(minVersion, new CompletableFuture<>());
+        lock.lock();
+        try {
+            if (size >= maxWaiters) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            waiters.computeIfAbsent(productId, id -> new ArrayList<>(1)).add(waiter);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        waiter.future().whenComplete((view, error) -> remove(productId, waiter));
+        return waiter.future().completeOnTimeout(Optional.empty(), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Réveille les attentes satisfaites par la vue projetée, une fois la transaction
+     * courante validée.
+     *
+     * @param serialized la vue projetée et son corps
+     */
+    public void onProjected(SerializedProductView serialized) {
+        afterCommit.register(() -> release(serialized));
+    }
+
+    private void release(SerializedProductView serialized) {
+        final ProductId productId = serialized.view().getId();
+        final long version = serialized.view().getVersion();
+        final List<Waiter> reached = new ArrayList<>();
+        lock.lock();
+        try {
+            final List<Waiter> pending = waiters.get(productId);
+            if (pending == null) {
+                return;
+            }
+            final Iterator<Waiter> it = pending.iterator();
+            while (it.hasNext()) {
+                final Waiter waiter = it.next();
+                if (waiter.minVersion() <= version) {
+                    reached.add(waiter);
+                    it.remove();
+                    size--;
+                }
+            }
+            if (pending.isEmpty()) {
+                waiters.remove(productId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Hors verrou : les suites de la promesse écrivent la réponse
+        final Optional<SerializedProductView> view = Optional.of(serialized);
+        reached.forEach(waiter -> waiter.future().complete(view));
+    }
+
+    private void remove(ProductId productId, Waiter waiter) {
+        lock.lock();
+        try {
+            final List<Waiter> pending = waiters.get(productId);
+            if (pending != null && pending.remove(waiter)) {
+                size--;
+                if (pending.isEmpty()) {
+                    waiters.remove(productId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Waiter(long minVersion, CompletableFuture<Optional<SerializedProductView>> future) {
+    }
+}
@@ -0,0 +1,153 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Cache mémoire borné des vues produit et de leur corps de réponse, par identifiant.
+ *
+ * <p>L'éviction est de type W-TinyLFU (Caffeine) : un produit consulté une seule fois ne
+ * chasse pas les produits fréquemment lus. Chaque entrée ne peut qu'avancer en version :
+ * une lecture en base concurrente d'une projection ne peut pas remplacer la vue projetée
+ * par une version plus ancienne.</p>
+ *
+ * <p>{@link ProjectionDispatcher} y publie chaque vue projetée, sérialisée dans sa
+ * transaction, après la validation de celle-ci. Les métriques (succès, défauts, évictions)
+ * sont exposées sous le nom {@value #CACHE_NAME}.</p>
+ */
+@ApplicationScoped
+public class ProductViewCache {
+
+    static final String CACHE_NAME = "product-views";
+    private static final long MAX_SIZE = 10_000;
+
+    private final AfterCommit afterCommit;
+    private final ProductViewSerializer serializer;
+    private final Cache<ProductId, SerializedProductView> views = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    @Inject
+    public ProductViewCache(
+            AfterCommit afterCommit,
+            ProductViewSerializer serializer,
+            MeterRegistry registry) {
+        this.afterCommit = afterCommit;
+        this.serializer = serializer;
+        CaffeineCacheMetrics.monitor(registry, views, CACHE_NAME);
+    }
+
+    /**
+     * Lit la vue en cache, ou la charge, la sérialise puis la met en cache.
+     *
+     * @param productId l'identifiant du produit
+     * @param loader    le chargement en base, appelé hors de tout verrou du cache
+     * @return la vue et son corps, vide si le produit n'existe pas (l'absence n'est pas
+     *         mise en cache)
+     */
+    public Optional<SerializedProductView> get(ProductId productId,
+            Function<ProductId, Optional<ProductView>> loader) {
+        final SerializedProductView cached = views.getIfPresent(productId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return loader.apply(productId).map(this::serialize).map(this::put);
+    }
+
+    /**
+     * Variante non bloquante de {@link #get(ProductId, Function)}.
+     *
+     * @param productId l'identifiant du produit
+     * @param loader    le chargement réactif en base
+     * @return la vue et son corps, vide si le produit n'existe pas
+     */
+    public Uni<Optional<SerializedProductView>> getAsync(ProductId productId,
+            Function<ProductId, Uni<Optional<ProductView>>> loader) {
+        final SerializedProductView cached = views.getIfPresent(productId);
+        if (cached != null) {
+            return Uni.createFrom().item(Optional.of(cached));
+        }
+        return loader.apply(productId).map(view -> view.map(this::serialize).map(this::put));
+    }
+
+    /**
+     * Lit plusieurs vues : celles absentes du cache sont chargées en un seul appel.
+     *
+     * @param productIds les identifiants, sans doublon
+     * @param loader     le chargement groupé en base des identifiants absents du cache
+     * @return les vues trouvées, dans l'ordre des identifiants
+     */
+    public List<SerializedProductView> getAll(List<ProductId> productIds,
+            Function<List<ProductId>, List<ProductView>> loader) {
+        final Map<ProductId, SerializedProductView> found = new HashMap<>(views.getAllPresent(productIds));
+        final List<ProductId> missing = productIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            for (ProductView view : loader.apply(missing)) {
+                found.put(view.getId(), put(serialize(view)));
+            }
+        }
+        return productIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @param productId l'identifiant du produit
+     * @return la version de la vue en cache, vide si elle n'y est pas
+     */
+    public Optional<Long> cachedVersion(ProductId productId) {
+        return Optional.ofNullable(views.getIfPresent(productId)).map(cached -> cached.view().getVersion());
+    }
+
+    /**
+     * Sérialise la vue projetée puis la publie, une fois la transaction courante validée.
+     *
+     * @param view la vue projetée
+     * @return la vue et son corps, tels qu'ils seront publiés
+     */
+    public SerializedProductView onProjected(ProductView view) {
+        final SerializedProductView serialized = serialize(view);
+        afterCommit.register(() -> put(serialized), () -> views.invalidate(view.getId()));
+        return serialized;
+    }
+
+    /**
+     * Vide le cache ; à appeler quand les vues ont été réécrites hors projection
+     * (reconstruction).
+     */
+    public void invalidateAll() {
+        views.invalidateAll();
+    }
+
+    private SerializedProductView serialize(ProductView view) {
+        return new SerializedProductView(view, serializer.serialize(view));
+    }
+
+    private SerializedProductView put(SerializedProductView serialized) {
+        return views.asMap().merge(serialized.view().getId(), serialized, ProductViewCache::newest);
+    }
+
+    private static SerializedProductView newest(SerializedProductView cached, SerializedProductView candidate) {
+        return candidate.view().getVersion() >= cached.view().getVersion() ? candidate : cached;
+    }
+}
@@ -0,0 +1,13 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+
+/**
+ * Sérialise une vue produit en corps de réponse HTTP.
+ *
+ * <p>Le corps ne dépend que de la vue : pour une version donnée il est calculé une fois,
+ * à la projection, puis servi tel quel.</p>
+ */
+public interface ProductViewSerializer {
+    byte[] serialize(ProductView view);
+}
@@ -0,0 +1,104 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.cqrs.infra.persistence.ProjectionCheckpointRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Points de reprise des projections, avec un cache mémoire des plus hautes séquences
+ * appliquées.
+ *
+ * <p>Le cache n'avance qu'après la validation de la transaction qui a écrit la vue :
+ * une annulation ne peut donc pas faire ignorer un événement. À froid, ou après
+ * l'éviction d'une entrée, la table est consultée par clé primaire. Les métriques sont
+ * exposées sous le nom {@value #CACHE_NAME}.</p>
+ */
+@ApplicationScoped
+public class ProjectionCheckpoints {
+
+    static final String CACHE_NAME = "projection-checkpoints";
+    private static final long MAX_SIZE = 100_000;
+
+    private final ProjectionCheckpointRepository repository;
+    private final AfterCommit afterCommit;
+    private final Cache<Key, Long> highWaterMarks = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    @Inject
+    public ProjectionCheckpoints(
+            ProjectionCheckpointRepository repository,
+            AfterCommit afterCommit,
+            MeterRegistry registry) {
+        this.repository = repository;
+        this.afterCommit = afterCommit;
+        CaffeineCacheMetrics.monitor(registry, highWaterMarks, CACHE_NAME);
+    }
+
+    /**
+     * Indique si l'événement de séquence donnée a déjà été appliqué à la projection.
+     *
+     * @param projection  la projection
+     * @param aggregateId l'agrégat
+     * @param sequence    la séquence de l'événement
+     * @return vrai si l'événement est un doublon ou est périmé
+     */
+    public boolean isAlreadyProjected(String projection, UUID aggregateId, long sequence) {
+        final OptionalLong last = lastSequence(projection, aggregateId);
+        return last.isPresent() && sequence <= last.getAsLong();
+    }
+
+    /**
+     * Séquence du dernier événement appliqué à la projection pour l'agrégat.
+     *
+     * @param projection  la projection
+     * @param aggregateId l'agrégat
+     * @return la séquence, vide si aucun événement n'a été appliqué
+     */
+    public OptionalLong lastSequence(String projection, UUID aggregateId) {
+        final Key key = new Key(projection, aggregateId);
+        final Long last = highWaterMarks.getIfPresent(key);
+        if (last != null) {
+            return OptionalLong.of(last);
+        }
+        final OptionalLong stored = repository.findLastSequence(projection, aggregateId);
+        if (stored.isPresent()) {
+            return OptionalLong.of(highWaterMarks.asMap().merge(key, stored.getAsLong(), Math::max));
+        }
+        return stored;
+    }
+
+    /**
+     * Avance le point de reprise dans la transaction courante.
+     *
+     * @param projection  la projection
+     * @param aggregateId l'agrégat
+     * @param sequence    la séquence de l'événement appliqué
+     */
+    public void advance(String projection, UUID aggregateId, long sequence) {
+        repository.advance(projection, aggregateId, sequence);
+        final Key key = new Key(projection, aggregateId);
+        afterCommit.register(() -> highWaterMarks.asMap().merge(key, sequence, Math::max));
+    }
+
+    /**
+     * Vide le cache ; à appeler quand les points de reprise ont été réécrits hors de
+     * cette classe (reconstruction d'une vue).
+     */
+    public void invalidateAll() {
+        highWaterMarks.invalidateAll();
+    }
+
+    private record Key(String projection, UUID aggregateId) {
+    }
+}
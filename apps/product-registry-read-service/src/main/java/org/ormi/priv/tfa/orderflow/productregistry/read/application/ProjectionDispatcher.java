@@ -1,17 +1,22 @@
 package org.ormi.priv.tfa.orderflow.productregistry.read.application;
 
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
 
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductStreamElementDto;
 import org.ormi.priv.tfa.orderflow.cqrs.Projector.ProjectionResult;
 import org.ormi.priv.tfa.orderflow.kernel.Product;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
 import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductViewRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
 import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
 import org.ormi.priv.tfa.orderflow.productregistry.read.projection.ProductViewProjector;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.resource.spi.IllegalStateException;
@@ -26,19 +31,79 @@ import jakarta.transaction.Transactional;
  */
 public class ProjectionDispatcher {
     private static final String PRODUCT_AGGREGATE_TYPE = Product.class.getSimpleName();
+    public static final String PRODUCT_VIEW_PROJECTION = "product_view";
 
     private final Instance<ProductViewProjector> productViewProjector;
     private final ProductViewRepository productViewRepository;
+    private final ProductSummaryRepository productSummaryRepository;
     private final ProductEventBroadcaster productEventBroadcaster;
+    private final ProjectionCheckpoints checkpoints;
+    private final SkuIndex skuIndex;
+    private final ProductViewCache viewCache;
+    private final ProductSearchIndexer searchIndexer;
+    private final SearchResultCache searchCache;
+    private final ProductVersionWaiters versionWaiters;
+    private final LiveSearchSubscriptions liveSearches;
 
     @Inject
     public ProjectionDispatcher(
             Instance<ProductViewProjector> productViewProjector,
             ProductViewRepository productViewRepository,
-            ProductEventBroadcaster productEventBroadcaster) {
+            ProductSummaryRepository productSummaryRepository,
+            ProductEventBroadcaster productEventBroadcaster,
+            ProjectionCheckpoints checkpoints,
+            SkuIndex skuIndex,
+            ProductViewCache viewCache,
+            ProductSearchIndexer searchIndexer,
+            SearchResultCache searchCache,
+            ProductVersionWaiters versionWaiters,
+            LiveSearchSubscriptions liveSearches) {
         this.productViewProjector = productViewProjector;
         this.productViewRepository = productViewRepository;
+        this.productSummaryRepository = productSummaryRepository;
         this.productEventBroadcaster = productEventBroadcaster;
+        this.checkpoints = checkpoints;
+        this.skuIndex = skuIndex;
+        this.viewCache = viewCache;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
+        this.versionWaiters = versionWaiters;
+        this.liveSearches = liveSearches;
+    }
+
+    /**
+     * Indique si l'événement a déjà été appliqué à la vue, sans le désérialiser ni lire
+     * la vue.
+     *
+     * @param aggregateType le type d'agrégat
+     * @param aggregateId   l'agrégat
+     * @param sequence      la séquence de l'événement
+     * @return vrai si l'événement est un doublon ou est périmé
+     */
+    @ActivateRequestContext
+    public boolean isAlreadyProjected(String aggregateType, UUID aggregateId, long sequence) {
+        return aggregateType.equals(PRODUCT_AGGREGATE_TYPE)
+                && checkpoints.isAlreadyProjected(PRODUCT_VIEW_PROJECTION, aggregateId, sequence);
+    }
+
+    /**
+     * Séquence attendue du prochain événement de l'agrégat : celle qui suit le point de
+     * reprise, ou à défaut la version de la vue.
+     *
+     * @param aggregateType le type d'agrégat
+     * @param aggregateId   l'agrégat
+     * @return la séquence attendue, vide si le type d'agrégat n'est pas projeté ici
+     */
+    @ActivateRequestContext
+    public OptionalLong nextExpectedSequence(String aggregateType, UUID aggregateId) {
+        if (!aggregateType.equals(PRODUCT_AGGREGATE_TYPE)) {
+            return OptionalLong.empty();
+        }
+        final OptionalLong last = checkpoints.lastSequence(PRODUCT_VIEW_PROJECTION, aggregateId);
+        if (last.isPresent()) {
+            return OptionalLong.of(last.getAsLong() + 1);
+        }
+        return OptionalLong.of(productViewRepository.findVersionById(new ProductId(aggregateId)).orElse(0L) + 1);
     }
 
     @Transactional
@@ -55,15 +120,36 @@ public class ProjectionDispatcher {
                 // TODO: Log info. It may happen if ordering is temporarily broken
             }
             if (result.isSuccess()) {
+                final ProductSummary summary = toSummary(result.getProjection());
                 productViewRepository.save(result.getProjection());
-                productEventBroadcaster.broadcast(new ProductStreamElementDto(
+                productSummaryRepository.save(summary);
+                checkpoints.advance(PRODUCT_VIEW_PROJECTION, event.aggregateId(), event.sequence());
+                skuIndex.onProjected(result.getProjection().getId(), currentView.map(ProductView::getSkuId),
+                        result.getProjection().getSkuId());
+                versionWaiters.onProjected(viewCache.onProjected(result.getProjection()));
+                searchIndexer.onProjected(result.getProjection().getId());
+                searchCache.advanceOnCommit();
+                productEventBroadcaster.broadcastOnCommit(new ProductStreamElementDto(
                     event.event().eventType(),
                     event.aggregateId().toString(),
                     event.timestamp()
-                ));
+                ), event.sequence());
+                liveSearches.onProjected(currentView.map(ProductView::getSkuId), summary,
+                    event.event().eventType(), event.timestamp(), event.sequence());
             }
             return result;
         }
         throw new IllegalStateException("Unmatched aggregate type: " + event.aggregateType());
     }
+
+    private static ProductSummary toSummary(ProductView view) {
+        return ProductSummary.Builder()
+                .id(view.getId())
+                .version(view.getVersion())
+                .skuId(view.getSkuId())
+                .name(view.getName())
+                .status(view.getStatus())
+                .catalogs(view.getCatalogs().size())
+                .build();
+    }
 }
@@ -0,0 +1,27 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Lecture non bloquante des vues produit, pour les requêtes servies sur la boucle
+ * d'événements.
+ *
+ * <p>Pendant des lectures de
+ * {@link org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductViewRepository} :
+ * une requête en attente de la base n'occupe ni thread de travail ni connexion JDBC.</p>
+ *
+ * <p>L'implémentation est choisie par {@code product-registry.read.by-id-repository} :
+ * {@code reactive} par défaut, ou {@code jpa} pour mesurer le chemin bloquant sur la même
+ * requête.</p>
+ */
+public interface ReactiveProductViewRepository {
+
+    Uni<Optional<ProductView>> findById(ProductId id);
+
+    Uni<Optional<Long>> findVersionById(ProductId id);
+}
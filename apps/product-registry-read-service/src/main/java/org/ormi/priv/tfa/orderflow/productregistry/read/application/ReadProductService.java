@@ -2,15 +2,31 @@ package org.ormi.priv.tfa.orderflow.productregistry.read.application;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductStreamElementDto;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.persistence.EventLogRepository;
+import org.ormi.priv.tfa.orderflow.kernel.common.AggregateType;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSearchRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
 import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductViewRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
 import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.Frame;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.ProductEvent;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.buffer.Buffer;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 
 
@@ -23,40 +39,278 @@ import jakarta.inject.Inject;
 public class ReadProductService {
 
     private final ProductViewRepository repository;
+    private final ProductSummaryRepository summaryRepository;
     private final ProductEventBroadcaster productEventBroadcaster;
+    private final SkuIndex skuIndex;
+    private final ProductViewCache viewCache;
+    private final ProductSearchRepository searchRepository;
+    private final SearchResultCache searchCache;
+    private final ProductVersionWaiters versionWaiters;
+    private final ReactiveProductViewRepository reactiveRepository;
+    private final EventLogRepository eventLog;
+    private final LiveSearchSubscriptions liveSearches;
+    private final ProjectionCheckpoints checkpoints;
 
     @Inject
     public ReadProductService(
         ProductViewRepository repository,
-        ProductEventBroadcaster productEventBroadcaster) {
+        ProductSummaryRepository summaryRepository,
+        ProductEventBroadcaster productEventBroadcaster,
+        SkuIndex skuIndex,
+        ProductViewCache viewCache,
+        ProductSearchRepository searchRepository,
+        SearchResultCache searchCache,
+        ProductVersionWaiters versionWaiters,
+        Instance<ReactiveProductViewRepository> reactiveRepository,
+        EventLogRepository eventLog,
+        LiveSearchSubscriptions liveSearches,
+        ProjectionCheckpoints checkpoints) {
         this.repository = repository;
+        this.summaryRepository = summaryRepository;
         this.productEventBroadcaster = productEventBroadcaster;
+        this.skuIndex = skuIndex;
+        this.viewCache = viewCache;
+        this.searchRepository = searchRepository;
+        this.searchCache = searchCache;
+        this.versionWaiters = versionWaiters;
+        // Implémentation choisie par product-registry.read.by-id-repository
+        this.reactiveRepository = reactiveRepository.get();
+        this.eventLog = eventLog;
+        this.liveSearches = liveSearches;
+        this.checkpoints = checkpoints;
     }
 
     public Optional<ProductView> findById(ProductId productId) {
-        return repository.findById(productId);
+        return viewCache.get(productId, repository::findById).map(SerializedProductView::view);
+    }
+
+    /**
+     * Vue et corps de réponse déjà sérialisé, servis depuis le cache ; un défaut de cache
+     * est lu par le {@link ReactiveProductViewRepository} configuré, sans bloquer par défaut.
+     *
+     * @param productId l'identifiant du produit
+     * @return la vue sérialisée, vide si le produit n'existe pas
+     */
+    public Uni<Optional<SerializedProductView>> findSerializedById(ProductId productId) {
+        return viewCache.getAsync(productId, reactiveRepository::findById);
+    }
+
+    /**
+     * Vue sérialisée d'une version au moins égale à celle demandée, par exemple celle
+     * rendue par une commande : si la projection est en retard, la lecture est mise en
+     * attente sans occuper de thread jusqu'à ce qu'elle l'atteigne.
+     *
+     * @param productId  l'identifiant du produit
+     * @param minVersion la version minimale
+     * @return la vue, ou vide si elle n'a pas atteint la version avant l'expiration
+     */
+    public Uni<Optional<SerializedProductView>> awaitSerializedById(ProductId productId, long minVersion) {
+        return findSerializedById(productId).flatMap(current -> {
+            if (hasReached(current, minVersion)) {
+                return Uni.createFrom().item(current);
+            }
+            final CompletableFuture<Optional<SerializedProductView>> parked = versionWaiters.await(productId,
+                    minVersion);
+            // Une projection a pu être validée entre la première lecture et l'inscription
+            return findSerializedById(productId).flatMap(recheck -> {
+                if (hasReached(recheck, minVersion)) {
+                    parked.complete(recheck);
+                }
+                return Uni.createFrom().completionStage(parked);
+            });
+        });
+    }
+
+    private static boolean hasReached(Optional<SerializedProductView> view, long minVersion) {
+        return view.isPresent() && view.get().view().getVersion() >= minVersion;
+    }
+
+    /**
+     * Lecture groupée : les vues hors cache sont lues en une seule requête.
+     *
+     * @param productIds les identifiants ; les doublons sont ignorés
+     * @return les vues sérialisées trouvées, dans l'ordre des identifiants
+     */
+    public List<SerializedProductView> findSerializedByIds(List<ProductId> productIds) {
+        return viewCache.getAll(productIds.stream().distinct().toList(), repository::findByIds);
+    }
+
+    /**
+     * Version courante de la vue, sans la charger : depuis le cache, sinon par une lecture
+     * non bloquante de la seule colonne de version.
+     *
+     * @param productId l'identifiant du produit
+     * @return la version, vide si le produit n'existe pas
+     */
+    public Uni<Optional<Long>> findVersionById(ProductId productId) {
+        final Optional<Long> cached = viewCache.cachedVersion(productId);
+        return cached.isPresent()
+                ? Uni.createFrom().item(cached)
+                : reactiveRepository.findVersionById(productId);
     }
 
     public SearchPaginatedResult searchProducts(String skuIdPattern, int page, int size) {
+        return searchProducts(skuIdPattern, Optional.empty(), page, size, true);
+    }
+
+    /**
+     * Recherche paginée des produits par motif de SKU, triée par SKU.
+     *
+     * @param skuIdPattern le motif recherché comme sous-chaîne
+     * @param after        le dernier SKU de la page précédente ; s'il est présent, {@code page} est ignoré
+     * @param page         la page, à partir de 1
+     * @param size         la taille de page
+     * @param withTotal    compter toutes les correspondances
+     * @return la page, le total s'il a été demandé et le SKU à partir duquel lire la page suivante
+     */
+    public SearchPaginatedResult searchProducts(String skuIdPattern, Optional<SkuId> after, int page, int size,
+            boolean withTotal) {
+        if (size < 0 || (after.isEmpty() && page < 1)) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        return searchCache.get(new SearchResultCache.Key(null, skuIdPattern, after, page, size, withTotal),
+                () -> computeSearchProducts(skuIdPattern, after, page, size, withTotal));
+    }
+
+    private SearchPaginatedResult computeSearchProducts(String skuIdPattern, Optional<SkuId> after, int page,
+            int size, boolean withTotal) {
+        final int offset = after.isPresent() ? 0 : Math.multiplyExact(page - 1, size);
+        final Optional<SkuIndex.Page> indexed = skuIndex.search(skuIdPattern, after, offset, size, withTotal);
+        if (indexed.isPresent()) {
+            final List<SkuId> skuIds = indexed.get().skuIds();
+            return new SearchPaginatedResult(
+                    summaryRepository.findBySkuIdsOrderBySkuId(skuIds),
+                    indexed.get().total(),
+                    indexed.get().hasMore() && !skuIds.isEmpty()
+                            ? Optional.of(skuIds.get(skuIds.size() - 1))
+                            : Optional.empty());
+        }
+        final List<ProductSummary> summaries = summaryRepository.searchOrderBySkuId(skuIdPattern, after, offset,
+                size + 1);
+        final List<ProductSummary> pageSummaries = summaries.size() > size ? summaries.subList(0, size) : summaries;
         return new SearchPaginatedResult(
-                repository.searchPaginatedViewsOrderBySkuId(skuIdPattern, page, size),
-                repository.countPaginatedViewsBySkuIdPattern(skuIdPattern));
+                pageSummaries,
+                withTotal
+                        ? OptionalLong.of(summaryRepository.countBySkuIdPattern(skuIdPattern))
+                        : OptionalLong.empty(),
+                summaries.size() > size && size > 0
+                        ? Optional.of(pageSummaries.get(size - 1).getSkuId())
+                        : Optional.empty());
     }
 
-    public Multi<ProductStreamElementDto> streamProductEvents(ProductId productId) {
-        return productEventBroadcaster.stream()
-                .select().where(e -> e.productId().equals(productId.value().toString()));
+    /**
+     * Recherche plein texte sur le nom et la description, classée par pertinence.
+     *
+     * @param query        la requête, en syntaxe de moteur de recherche ({@code "mots exacts"}, {@code -exclu}, {@code or})
+     * @param skuIdPattern le motif de SKU à respecter en plus, comme sous-chaîne
+     * @param page         la page, à partir de 1
+     * @param size         la taille de page
+     * @param withTotal    compter toutes les correspondances
+     * @return la page et le total s'il a été demandé ; pas de curseur, le classement n'étant pas stable
+     */
+    public SearchPaginatedResult searchFullText(String query, String skuIdPattern, int page, int size,
+            boolean withTotal) {
+        if (size < 0 || page < 1) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        return searchCache.get(new SearchResultCache.Key(query, skuIdPattern, Optional.empty(), page, size, withTotal),
+                () -> computeSearchFullText(query, skuIdPattern, page, size, withTotal));
     }
 
-    public Multi<ProductStreamElementDto> streamProductListEvents(String skuIdPattern, int page, int size) {
-        final List<ProductView> products = searchProducts(skuIdPattern, page, size).page();
-        final List<UUID> productIds = products.stream()
-                .map(p -> p.getId().value())
+    private SearchPaginatedResult computeSearchFullText(String query, String skuIdPattern, int page, int size,
+            boolean withTotal) {
+        return new SearchPaginatedResult(
+                searchRepository.search(query, skuIdPattern, Math.multiplyExact(page - 1, size), size),
+                withTotal
+                        ? OptionalLong.of(searchRepository.count(query, skuIdPattern))
+                        : OptionalLong.empty(),
+                Optional.empty());
+    }
+
+    /**
+     * Tranche du flux des changements : les produits modifiés après la position donnée.
+     *
+     * @param since la dernière position déjà lue (0 pour tout relire)
+     * @param limit le nombre maximal de produits
+     * @return les résumés, la position suivante et la présence d'autres changements
+     */
+    public ChangesResult findChangesSince(long since, int limit) {
+        if (since < 0 || limit < 1) {
+            throw new IllegalArgumentException("Invalid changes range since " + since + " limit " + limit);
+        }
+        final List<ProductSummaryRepository.Change> changes = summaryRepository.findChangedSince(since, limit + 1);
+        final List<ProductSummaryRepository.Change> page = changes.size() > limit ? changes.subList(0, limit) : changes;
+        return new ChangesResult(
+                page.stream().map(ProductSummaryRepository.Change::summary).toList(),
+                page.isEmpty() ? since : page.get(page.size() - 1).position(),
+                changes.size() > limit);
+    }
+
+    /**
+     * Flux des événements d'un produit, repris après le dernier événement reçu s'il est
+     * donné : les événements manqués sont rejoués, depuis la mémoire ou le journal
+     * d'événements, avant le direct.
+     *
+     * @param productId    l'identifiant du produit
+     * @param lastSequence la séquence du dernier événement reçu par le client
+     * @param policy       le traitement d'un tampon d'abonné plein, celui par défaut sinon
+     * @return les événements et leur séquence
+     */
+    public Multi<Frame> streamProductEvents(ProductId productId, OptionalLong lastSequence,
+            Optional<OverflowPolicy> policy) {
+        final String id = productId.value().toString();
+        final OverflowPolicy overflow = policy.orElseGet(productEventBroadcaster::defaultOverflowPolicy);
+        return lastSequence.isPresent()
+                ? productEventBroadcaster.resumeByProductId(id, lastSequence.getAsLong(), overflow,
+                        this::findEventsAfter)
+                : productEventBroadcaster.streamByProductIds(List.of(id), overflow);
+    }
+
+    @ActivateRequestContext
+    protected List<ProductEvent> findEventsAfter(String productId, long sequence, int limit) {
+        final UUID aggregateId = UUID.fromString(productId);
+        // Le journal peut contenir des événements pas encore projetés : la relecture
+        // s'arrête au point de reprise de la vue, le direct prend la suite
+        final OptionalLong checkpoint = checkpoints.lastSequence(ProjectionDispatcher.PRODUCT_VIEW_PROJECTION,
+                aggregateId);
+        final Optional<Long> projected = checkpoint.isPresent()
+                ? Optional.of(checkpoint.getAsLong())
+                : repository.findVersionById(new ProductId(aggregateId));
+        if (projected.isEmpty() || projected.get() <= sequence) {
+            return List.of();
+        }
+        return eventLog.findByAggregateVersionBetween(AggregateType.PRODUCT.value(), aggregateId,
+                sequence, projected.get(), limit).stream()
+                .map(ReadProductService::toProductEvent)
                 .toList();
-        return productEventBroadcaster.stream()
-                .select().where(e -> productIds.contains(UUID.fromString(e.productId())));
     }
 
-    public record SearchPaginatedResult(List<ProductView> page, long total) {
+    private static ProductEvent toProductEvent(EventLogEntity entity) {
+        return new ProductEvent(
+                new ProductStreamElementDto(
+                        entity.getEventType(),
+                        entity.getAggregateId().toString(),
+                        entity.getOccurredAt()),
+                entity.getAggregateVersion());
+    }
+
+    /**
+     * Suit en direct une recherche par motif de SKU : les produits qui entrent dans le
+     * résultat, en sortent ou y changent sont signalés à mesure de leur projection, sans
+     * relancer la recherche.
+     *
+     * @param skuIdPattern le motif recherché comme sous-chaîne
+     * @param policy       le traitement d'un tampon d'abonné plein, celui par défaut sinon
+     * @return les changements du résultat, encodés en JSON
+     */
+    public Multi<Buffer> streamProductListEvents(String skuIdPattern, Optional<OverflowPolicy> policy) {
+        return liveSearches.subscribe(skuIdPattern,
+                policy.orElseGet(productEventBroadcaster::defaultOverflowPolicy));
+    }
+
+    public record SearchPaginatedResult(List<ProductSummary> page, OptionalLong total, Optional<SkuId> next) {
+    }
+
+    public record ChangesResult(List<ProductSummary> page, long nextPosition, boolean hasMore) {
     }
 }
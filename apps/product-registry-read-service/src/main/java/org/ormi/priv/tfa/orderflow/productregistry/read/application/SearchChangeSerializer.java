@@ -0,0 +1,13 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.LiveSearchSubscriptions.SearchChange;
+
+/**
+ * Sérialise un changement de résultat de recherche en élément de flux.
+ *
+ * <p>Un changement est encodé une fois, puis remis tel quel à tous les abonnés de la
+ * recherche.</p>
+ */
+public interface SearchChangeSerializer {
+    byte[] serialize(SearchChange change);
+}
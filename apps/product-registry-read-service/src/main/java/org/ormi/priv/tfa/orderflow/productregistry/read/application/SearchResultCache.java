@@ -0,0 +1,192 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService.SearchPaginatedResult;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Cache borné des pages de recherche, étiquetées par la génération de projection.
+ *
+ * <p>La génération est un compteur global que {@link ProjectionDispatcher} incrémente à
+ * chaque projection validée, et {@link ProductSearchIndexer} à chaque lot réindexé : une
+ * page calculée à la génération courante est exacte et servie telle quelle.</p>
+ *
+ * <p>Une page d'une génération antérieure reste servie pendant la fenêtre
+ * {@code product-registry.search-cache.stale-while-revalidate}, comptée à partir de la
+ * première lecture qui la trouve périmée, le temps qu'un recalcul en arrière-plan la
+ * remplace : les listes les plus demandées n'attendent jamais la base, quel que soit l'âge
+ * de la page au moment de l'écriture. Au-delà, ou si la fenêtre est nulle, la page est
+ * recalculée pendant la requête.</p>
+ */
+@ApplicationScoped
+public class SearchResultCache {
+
+    static final String CACHE_NAME = "product-searches";
+    private static final long MAX_SIZE = 1_000;
+
+    private static final Logger LOG = Logger.getLogger(SearchResultCache.class);
+
+    private final AfterCommit afterCommit;
+    // Fenêtre de service d'une page périmée, en nanosecondes ; nulle, elle est désactivée
+    private final long staleWhileRevalidateNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, Entry> pages = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+    private final Map<Key, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "search-cache-refresh"));
+
+    @Inject
+    public SearchResultCache(AfterCommit afterCommit, MeterRegistry registry,
+            @ConfigProperty(name = "product-registry.search-cache.stale-while-revalidate", defaultValue = "2s")
+            Duration staleWhileRevalidate) {
+        this.afterCommit = afterCommit;
+        this.staleWhileRevalidateNanos = staleWhileRevalidate.toNanos();
+        CaffeineCacheMetrics.monitor(registry, pages, CACHE_NAME);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Lit la page en cache, ou la calcule.
+     *
+     * @param key    la recherche
+     * @param loader le calcul de la page ; s'il est relancé en arrière-plan, c'est dans un
+     *               contexte de requête propre
+     * @return la page
+     */
+    public SearchPaginatedResult get(Key key, Supplier<SearchPaginatedResult> loader) {
+        final long current = generation.get();
+        final Entry cached = pages.getIfPresent(key);
+        if (cached != null) {
+            if (cached.generation() == current) {
+                return cached.result();
+            }
+            final long now = System.nanoTime();
+            if (now - cached.staleSince(now) < staleWhileRevalidateNanos) {
+                refreshInBackground(key, loader);
+                return cached.result();
+            }
+        }
+        return compute(key, loader);
+    }
+
+    /**
+     * Fait avancer la génération une fois la transaction courante validée ; à appeler par
+     * toute écriture qui change un résultat de recherche (projection, index plein texte).
+     */
+    public void advanceOnCommit() {
+        afterCommit.register(() -> generation.incrementAndGet());
+    }
+
+    /**
+     * Vide le cache ; à appeler quand les vues ont été réécrites hors projection
+     * (reconstruction). Les pages ne sont pas servies périmées.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private SearchPaginatedResult compute(Key key, Supplier<SearchPaginatedResult> loader) {
+        // Génération lue avant le calcul : une projection concurrente rend la page périmée
+        final long at = generation.get();
+        final SearchPaginatedResult result = loader.get();
+        pages.put(key, new Entry(at, result));
+        return result;
+    }
+
+    private void refreshInBackground(Key key, Supplier<SearchPaginatedResult> loader) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                refresh(key, loader);
+            } catch (Exception e) {
+                LOG.warn("Background refresh of search " + key + " failed", e);
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    @ActivateRequestContext
+    protected void refresh(Key key, Supplier<SearchPaginatedResult> loader) {
+        compute(key, loader);
+    }
+
+    /**
+     * Paramètres d'une recherche.
+     *
+     * @param query        la requête plein texte, ou {@code null} pour une recherche par SKU
+     * @param skuIdPattern le motif de SKU
+     * @param after        le curseur
+     * @param page         la page
+     * @param size         la taille de page
+     * @param withTotal    le comptage demandé
+     */
+    public record Key(String query, String skuIdPattern, Optional<SkuId> after, int page, int size,
+            boolean withTotal) {
+    }
+
+    /**
+     * Page en cache et génération à laquelle elle a été calculée.
+     */
+    private static final class Entry {
+
+        private static final long NOT_STALE = Long.MIN_VALUE;
+
+        private final long generation;
+        private final SearchPaginatedResult result;
+        // Instant (System.nanoTime) de la première lecture qui l'a trouvée périmée
+        private final AtomicLong staleSince = new AtomicLong(NOT_STALE);
+
+        Entry(long generation, SearchPaginatedResult result) {
+            this.generation = generation;
+            this.result = result;
+        }
+
+        long generation() {
+            return generation;
+        }
+
+        SearchPaginatedResult result() {
+            return result;
+        }
+
+        /**
+         * @param now l'instant courant, retenu si la page n'avait pas encore été vue périmée
+         * @return l'instant où la page a été vue périmée pour la première fois
+         */
+        long staleSince(long now) {
+            staleSince.compareAndSet(NOT_STALE, now);
+            return staleSince.get();
+        }
+    }
+}
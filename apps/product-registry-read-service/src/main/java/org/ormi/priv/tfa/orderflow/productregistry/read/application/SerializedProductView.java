@@ -0,0 +1,12 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+
+/**
+ * Vue produit accompagnée de son corps de réponse déjà sérialisé.
+ *
+ * @param view la vue
+ * @param body le corps JSON de la vue ; à ne pas modifier
+ */
+public record SerializedProductView(ProductView view, byte[] body) {
+}
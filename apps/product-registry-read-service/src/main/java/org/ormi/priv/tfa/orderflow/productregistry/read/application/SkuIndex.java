@@ -0,0 +1,242 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository.SkuOwner;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Index mémoire trié des SKU des résumés de produit, empaquetés en {@code int}.
+ *
+ * <p>Chaque entrée associe le SKU empaqueté (32 bits de poids fort) à une empreinte de
+ * l'identifiant du produit (32 bits de poids faible) : deux produits qui partagent un SKU,
+ * le temps qu'un changement de SKU soit projeté sur chacun, ont chacun leur entrée, et
+ * retirer l'un ne retire pas l'autre. Ajouter ou retirer une entrée est idempotent, ce qui
+ * permet de rejouer sans risque les changements survenus pendant un rechargement.</p>
+ *
+ * <p>Il répond à la recherche par motif (correspondance, comptage et découpage en pages)
+ * sans interroger la base : seuls les produits de la page demandée sont ensuite lus.</p>
+ *
+ * <p>Les lectures se font sans verrou sur un tableau immuable ; chaque écriture publie une
+ * copie. L'index est chargé au démarrage puis tenu à jour par {@link ProjectionDispatcher}
+ * après la validation de chaque projection.</p>
+ */
+@ApplicationScoped
+public class SkuIndex {
+
+    private static final Logger LOG = Logger.getLogger(SkuIndex.class);
+
+    private final ProductSummaryRepository repository;
+    private final AfterCommit afterCommit;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long[] entries = new long[0];
+    private volatile boolean ready;
+    // Ajouts et retraits survenus pendant un rechargement
+    private List<Change> changesDuringLoad;
+
+    @Inject
+    public SkuIndex(ProductSummaryRepository repository, AfterCommit afterCommit) {
+        this.repository = repository;
+        this.afterCommit = afterCommit;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    /**
+     * Recharge l'index depuis les résumés de produit.
+     *
+     * <p>Les SKU projetés pendant le chargement sont journalisés puis rejoués sur le
+     * tableau chargé, pour ne rien perdre d'une projection validée après la lecture.</p>
+     */
+    @ActivateRequestContext
+    public void reload() {
+        writeLock.lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        final List<SkuOwner> stored = repository.findAllSkuOwners();
+        long[] loaded = new long[stored.size()];
+        for (int i = 0; i < loaded.length; i++) {
+            loaded[i] = entry(stored.get(i).skuId(), stored.get(i).productId());
+        }
+        Arrays.sort(loaded);
+        writeLock.lock();
+        try {
+            for (Change change : changesDuringLoad) {
+                loaded = change.added() ? insert(loaded, change.entry()) : delete(loaded, change.entry());
+            }
+            changesDuringLoad = null;
+            entries = loaded;
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        LOG.infof("SKU index loaded with %d entries", loaded.length);
+    }
+
+    /**
+     * Répercute le SKU d'une vue projetée, une fois la transaction courante validée.
+     *
+     * @param productId le produit projeté
+     * @param previous  le SKU de la vue avant projection
+     * @param current   le SKU de la vue projetée
+     */
+    public void onProjected(ProductId productId, Optional<SkuId> previous, SkuId current) {
+        if (previous.isPresent() && previous.get().equals(current)) {
+            return;
+        }
+        afterCommit.register(() -> {
+            previous.ifPresent(sku -> apply(new Change(false, entry(sku, productId))));
+            apply(new Change(true, entry(current, productId)));
+        });
+    }
+
+    /**
+     * Recherche les SKU contenant le motif, triés ; un SKU partagé par plusieurs produits y
+     * figure une fois par produit.
+     *
+     * @param skuIdPattern le motif recherché comme sous-chaîne
+     * @param after        le dernier SKU de la page précédente (pagination par curseur), ou vide
+     * @param offset       le nombre de correspondances à sauter (pagination par numéro de page)
+     * @param size         la taille de page
+     * @param withTotal    compter toutes les correspondances
+     * @return la page de SKU, vide si l'index n'est pas prêt ou si le motif n'est pas
+     *         évaluable en mémoire
+     */
+    public Optional<Page> search(String skuIdPattern, Optional<SkuId> after, long offset, int size,
+            boolean withTotal) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        final Optional<SkuPattern> compiled = SkuPattern.compile(skuIdPattern);
+        if (compiled.isEmpty()) {
+            return Optional.empty();
+        }
+        final SkuPattern pattern = compiled.get();
+        final long[] snapshot = entries;
+        final int start = after.map(sku -> lowerBound(snapshot, sku.packed() + 1)).orElse(0);
+        final List<SkuId> slice = new ArrayList<>(size);
+        if (pattern.isRange()) {
+            final int from = Math.max(start, lowerBound(snapshot, pattern.rangeFrom()));
+            final int to = lowerBound(snapshot, pattern.rangeTo());
+            for (long i = from + offset; i < to && slice.size() < size; i++) {
+                slice.add(SkuId.fromPacked(sku(snapshot[(int) i])));
+            }
+            final long total = Math.max(0, to - lowerBound(snapshot, pattern.rangeFrom()));
+            return Optional.of(new Page(slice, withTotal ? OptionalLong.of(total) : OptionalLong.empty(),
+                    from + offset + slice.size() < to));
+        }
+        // Correspondances précédant le curseur, pour le total
+        long before = 0;
+        if (withTotal) {
+            for (int i = 0; i < start; i++) {
+                if (pattern.matches(sku(snapshot[i]))) {
+                    before++;
+                }
+            }
+        }
+        long matched = 0;
+        boolean hasMore = false;
+        for (int i = start; i < snapshot.length; i++) {
+            if (!pattern.matches(sku(snapshot[i]))) {
+                continue;
+            }
+            if (matched >= offset) {
+                if (slice.size() < size) {
+                    slice.add(SkuId.fromPacked(sku(snapshot[i])));
+                } else {
+                    hasMore = true;
+                    if (!withTotal) {
+                        break;
+                    }
+                }
+            }
+            matched++;
+        }
+        return Optional.of(new Page(slice, withTotal ? OptionalLong.of(before + matched) : OptionalLong.empty(),
+                hasMore));
+    }
+
+    private void apply(Change change) {
+        writeLock.lock();
+        try {
+            entries = change.added() ? insert(entries, change.entry()) : delete(entries, change.entry());
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static long entry(SkuId skuId, ProductId productId) {
+        return (long) skuId.packed() << 32 | (productId.value().hashCode() & 0xFFFF_FFFFL);
+    }
+
+    private static int sku(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static long[] insert(long[] sorted, long entry) {
+        final int at = Arrays.binarySearch(sorted, entry);
+        if (at >= 0) {
+            return sorted;
+        }
+        final int insertion = -at - 1;
+        final long[] next = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, next, 0, insertion);
+        next[insertion] = entry;
+        System.arraycopy(sorted, insertion, next, insertion + 1, sorted.length - insertion);
+        return next;
+    }
+
+    private static long[] delete(long[] sorted, long entry) {
+        final int at = Arrays.binarySearch(sorted, entry);
+        if (at < 0) {
+            return sorted;
+        }
+        final long[] next = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, next, 0, at);
+        System.arraycopy(sorted, at + 1, next, at, sorted.length - at - 1);
+        return next;
+    }
+
+    /**
+     * @return la position de la première entrée dont le SKU empaqueté est au moins {@code sku}
+     */
+    private static int lowerBound(long[] sorted, int sku) {
+        final int at = Arrays.binarySearch(sorted, (long) sku << 32);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    private record Change(boolean added, long entry) {
+    }
+
+    /**
+     * Page de résultats d'une recherche par motif.
+     *
+     * @param skuIds  les SKU de la page, triés
+     * @param total   le nombre total de SKU correspondants, s'il a été demandé
+     * @param hasMore vrai si d'autres SKU correspondent après la page
+     */
+    public record Page(List<SkuId> skuIds, OptionalLong total, boolean hasMore) {
+    }
+}
@@ -0,0 +1,145 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+
+/**
+ * Recherche de sous-chaîne ({@code LIKE '%x%'}) évaluée sur des SKU empaquetés.
+ *
+ * <p>Le format {@code [A-Z]{3}-\d{5}} ne laisse à un motif que quelques positions possibles ;
+ * chacune devient une sonde arithmétique sur la partie lettres et la partie chiffres de
+ * l'entier, sans reconstruire la chaîne. Un motif qui ne peut commencer qu'en tête du
+ * SKU est un préfixe : il correspond à un intervalle contigu de l'index trié.</p>
+ */
+final class SkuPattern {
+
+    private static final int SKU_LENGTH = 9;
+    private static final int LETTERS = 3;
+    private static final int HYPHEN = 3;
+    private static final String LOWEST = "AAA-00000";
+    private static final String HIGHEST = "ZZZ-99999";
+
+    private final Probe[] probes;
+    private final int rangeFrom;
+    private final int rangeTo;
+
+    private SkuPattern(Probe[] probes, int rangeFrom, int rangeTo) {
+        this.probes = probes;
+        this.rangeFrom = rangeFrom;
+        this.rangeTo = rangeTo;
+    }
+
+    /**
+     * Compile un motif de recherche.
+     *
+     * @param pattern le motif, recherché comme sous-chaîne du SKU
+     * @return le motif compilé, vide si le motif contient des jokers SQL ({@code %}, {@code _})
+     *         ou le caractère d'échappement du {@code LIKE} ({@code \})
+     */
+    static Optional<SkuPattern> compile(String pattern) {
+        if (pattern.indexOf('%') >= 0 || pattern.indexOf('_') >= 0 || pattern.indexOf('\\') >= 0) {
+            return Optional.empty();
+        }
+        if (pattern.isEmpty()) {
+            return Optional.of(new SkuPattern(new Probe[0], 0, SkuId.MAX_PACKED + 1));
+        }
+        final List<Probe> probes = new ArrayList<>();
+        for (int offset = 0; offset + pattern.length() <= SKU_LENGTH; offset++) {
+            if (fits(pattern, offset)) {
+                probes.add(Probe.at(pattern, offset));
+            }
+        }
+        if (probes.size() == 1 && probes.get(0).offset() == 0) {
+            final int n = pattern.length();
+            return Optional.of(new SkuPattern(new Probe[0],
+                    new SkuId(pattern + LOWEST.substring(n)).packed(),
+                    new SkuId(pattern + HIGHEST.substring(n)).packed() + 1));
+        }
+        return Optional.of(new SkuPattern(probes.toArray(Probe[]::new), -1, -1));
+    }
+
+    /**
+     * @return vrai si le motif se réduit à un intervalle de valeurs empaquetées
+     */
+    boolean isRange() {
+        return rangeFrom >= 0;
+    }
+
+    /**
+     * @return la borne basse incluse de l'intervalle
+     */
+    int rangeFrom() {
+        return rangeFrom;
+    }
+
+    /**
+     * @return la borne haute exclue de l'intervalle
+     */
+    int rangeTo() {
+        return rangeTo;
+    }
+
+    boolean matches(int packed) {
+        if (isRange()) {
+            return packed >= rangeFrom && packed < rangeTo;
+        }
+        final int letters = packed / SkuId.DIGITS_RADIX;
+        final int digits = packed % SkuId.DIGITS_RADIX;
+        for (Probe probe : probes) {
+            if (probe.matches(letters, digits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean fits(String pattern, int offset) {
+        for (int i = 0; i < pattern.length(); i++) {
+            final int position = offset + i;
+            final char c = pattern.charAt(i);
+            final boolean ok = position < LETTERS ? c >= 'A' && c <= 'Z'
+                    : position == HYPHEN ? c == '-'
+                    : c >= '0' && c <= '9';
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Motif placé à une position donnée : {@code (part / div) % mod == value} pour chaque partie.
+     */
+    private record Probe(int offset, int letterDiv, int letterMod, int letterValue,
+            int digitDiv, int digitMod, int digitValue) {
+
+        static Probe at(String pattern, int offset) {
+            final int end = offset + pattern.length();
+            int letterDiv = 1, letterMod = 1, letterValue = 0;
+            for (int position = offset; position < Math.min(end, LETTERS); position++) {
+                letterMod *= 26;
+                letterValue = letterValue * 26 + (pattern.charAt(position - offset) - 'A');
+            }
+            for (int position = Math.max(end, offset); position < LETTERS; position++) {
+                letterDiv *= 26;
+            }
+            int digitDiv = 1, digitMod = 1, digitValue = 0;
+            for (int position = Math.max(offset, HYPHEN + 1); position < end; position++) {
+                digitMod *= 10;
+                digitValue = digitValue * 10 + (pattern.charAt(position - offset) - '0');
+            }
+            for (int position = Math.max(end, HYPHEN + 1); position < SKU_LENGTH; position++) {
+                digitDiv *= 10;
+            }
+            return new Probe(offset, letterDiv, letterMod, letterValue, digitDiv, digitMod, digitValue);
+        }
+
+        boolean matches(int letters, int digits) {
+            return (letters / letterDiv) % letterMod == letterValue
+                    && (digits / digitDiv) % digitMod == digitValue;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.api;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Validateurs forts des réponses de lecture, dérivés des versions des vues.
+ *
+ * <p>La version d'une vue est la séquence du dernier événement appliqué : deux réponses de
+ * même version sont identiques octet pour octet. Une liste est identifiée par ses
+ * paramètres, les versions de ses éléments et ses métadonnées de pagination.</p>
+ */
+final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    static EntityTag ofVersion(long version) {
+        return new EntityTag(Long.toString(version));
+    }
+
+    static EntityTag ofList(String query, List<ProductSummary> page, OptionalLong total, String nextCursor) {
+        long hash = mix(FNV_OFFSET, query);
+        for (ProductSummary summary : page) {
+            hash = mix(hash, summary.getId().value().getMostSignificantBits());
+            hash = mix(hash, summary.getId().value().getLeastSignificantBits());
+            hash = mix(hash, summary.getVersion());
+        }
+        hash = mix(hash, total.isPresent() ? total.getAsLong() : -1);
+        hash = mix(hash, nextCursor == null ? "" : nextCursor);
+        return new EntityTag("l-" + Long.toHexString(hash));
+    }
+
+    /**
+     * Évalue un en-tête {@code If-None-Match} (comparaison faible, RFC 9110 §13.1.2).
+     *
+     * @param ifNoneMatch la valeur de l'en-tête, éventuellement nulle
+     * @param tag         le validateur courant
+     * @return vrai si le client détient déjà la représentation courante
+     */
+    static boolean matches(String ifNoneMatch, EntityTag tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                    && value.substring(1, value.length() - 1).equals(tag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Séparateur, pour que deux champs concaténés ne se confondent pas
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+}
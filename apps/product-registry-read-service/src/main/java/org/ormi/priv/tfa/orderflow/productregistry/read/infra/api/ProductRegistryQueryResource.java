@@ -1,25 +1,42 @@
 package org.ormi.priv.tfa.orderflow.productregistry.read.infra.api;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.jboss.resteasy.reactive.RestResponse;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.BulkGetProductsQueryDto;
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.PaginatedProductListDto;
-import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductViewDto;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductChangesDto;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductIdMapper;
-import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
 import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService.ChangesResult;
 import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService.SearchPaginatedResult;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.SerializedProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.export.ProductCatalogExporter;
 import org.ormi.priv.tfa.orderflow.productregistry.read.infra.web.dto.ProductSummaryDtoMapper;
-import org.ormi.priv.tfa.orderflow.productregistry.read.infra.web.dto.ProductViewDtoMapper;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
 
 
 @Path("/products")
@@ -31,51 +48,224 @@ import jakarta.ws.rs.core.MediaType;
  */
 public class ProductRegistryQueryResource {
 
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+    /** Nombre maximal d'identifiants d'une lecture groupée. */
+    static final int BULK_GET_MAX_IDS = 100;
+    /** Taille maximale d'une tranche du flux des changements. */
+    static final int CHANGES_MAX_LIMIT = 1000;
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    /** Délai suggéré avant de relire un produit dont la version attendue n'est pas encore projetée. */
+    private static final int MIN_VERSION_RETRY_AFTER_SECONDS = 1;
+
     private final ReadProductService readProductService;
-    private final ProductViewDtoMapper productViewDtoMapper;
     private final ProductSummaryDtoMapper productSummaryDtoMapper;
     private final ProductIdMapper productIdMapper;
+    private final ProductCatalogExporter exporter;
 
     @Inject
     public ProductRegistryQueryResource(
             ReadProductService readProductService,
-            ProductViewDtoMapper productViewDtoMapper,
             ProductSummaryDtoMapper productSummaryDtoMapper,
-            ProductIdMapper productIdMapper) {
+            ProductIdMapper productIdMapper,
+            ProductCatalogExporter exporter) {
         this.readProductService = readProductService;
-        this.productViewDtoMapper = productViewDtoMapper;
         this.productSummaryDtoMapper = productSummaryDtoMapper;
         this.productIdMapper = productIdMapper;
+        this.exporter = exporter;
     }
 
     @GET
+    @RunOnVirtualThread
     public RestResponse<PaginatedProductListDto> searchProducts(
             @QueryParam("sku") @DefaultValue("") String sku,
             @QueryParam("page") int page,
-            @QueryParam("size") int size) {
+            @QueryParam("size") int size,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("withTotal") @DefaultValue("true") boolean withTotal,
+            @QueryParam("q") String q,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         // TODO: Validation [Exercice 5]
-        final SearchPaginatedResult result = readProductService.searchProducts(sku, page, size);
+        final Optional<SkuId> after;
+        try {
+            after = Optional.ofNullable(cursor).filter(c -> !c.isEmpty()).map(ProductRegistryQueryResource::decodeCursor);
+        } catch (IllegalArgumentException e) {
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        final boolean fullText = q != null && !q.isBlank();
+        if (fullText && after.isPresent()) {
+            // Résultats classés par pertinence : seule la pagination par numéro de page s'applique
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        if (size < 0 || (after.isEmpty() && page < 1)) {
+            // Sans curseur, les pages sont numérotées à partir de 1
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        final SearchPaginatedResult result = fullText
+                ? readProductService.searchFullText(q, sku, page, size, withTotal)
+                : readProductService.searchProducts(sku, after, page, size, withTotal);
+        final String nextCursor = result.next().map(ProductRegistryQueryResource::encodeCursor).orElse(null);
+        final EntityTag etag = ETags.ofList(sku + '|' + page + '|' + size + '|' + cursor + '|' + withTotal + '|' + q,
+                result.page(), result.total(), nextCursor);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return RestResponse.ResponseBuilder.<PaginatedProductListDto>notModified(etag).build();
+        }
         final PaginatedProductListDto list = new PaginatedProductListDto(result.page().stream()
-                .map(view -> ProductSummary.Builder()
-                        .id(view.getId())
-                        .skuId(view.getSkuId())
-                        .name(view.getName())
-                        .status(view.getStatus())
-                        .catalogs(view.getCatalogs().size())
-                        .build())
                 .map(productSummaryDtoMapper::toDto)
-                .toList(), page, size, result.total());
-        return RestResponse.ok(list);
+                .toList(),
+                page,
+                size,
+                result.total().isPresent() ? result.total().getAsLong() : null,
+                nextCursor);
+        return RestResponse.ResponseBuilder.ok(list).tag(etag).build();
     }
 
+    /**
+     * Lecture d'un produit, sans bloquer : la méthode s'exécute sur la boucle d'événements
+     * et la base est lue par le client réactif.
+     *
+     * <p>Avec {@code minVersion} (l'en-tête {@code X-Aggregate-Version} d'une commande), la
+     * réponse attend que la projection ait atteint cette version ; si elle ne l'a pas
+     * atteinte à l'expiration, la réponse est 503 avec {@code Retry-After}.</p>
+     */
     @GET
     @Path("/{id}")
-    public RestResponse<ProductViewDto> getProductById(@PathParam("id") String id) {
+    public Uni<RestResponse<byte[]>> getProductById(@PathParam("id") String id,
+            @QueryParam("minVersion") Long minVersion,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         // TODO: Validation [Exercice 5]
-        final var product = readProductService.findById(productIdMapper.map(UUID.fromString(id)));
-        if (product.isEmpty()) {
-            return RestResponse.status(RestResponse.Status.NOT_FOUND);
+        final ProductId productId = productIdMapper.map(UUID.fromString(id));
+        if (minVersion == null) {
+            return readProduct(productId, ifNoneMatch);
+        }
+        if (minVersion < 1) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST));
+        }
+        return readProductService.awaitSerializedById(productId, minVersion)
+                .map(product -> product
+                        .map(p -> ok(p, ifNoneMatch))
+                        .orElseGet(() -> RestResponse.ResponseBuilder.<byte[]>create(RestResponse.Status.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, MIN_VERSION_RETRY_AFTER_SECONDS)
+                                .build()));
+    }
+
+    private Uni<RestResponse<byte[]>> readProduct(ProductId productId, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return serveProduct(productId);
+        }
+        // Revalidation : la version suffit, la vue n'est ni lue ni désérialisée
+        return readProductService.findVersionById(productId).flatMap(version -> {
+            if (version.isEmpty()) {
+                return Uni.createFrom().item(RestResponse.<byte[]>status(RestResponse.Status.NOT_FOUND));
+            }
+            final EntityTag etag = ETags.ofVersion(version.get());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return Uni.createFrom().item(RestResponse.ResponseBuilder.<byte[]>notModified(etag).build());
+            }
+            return serveProduct(productId);
+        });
+    }
+
+    private Uni<RestResponse<byte[]>> serveProduct(ProductId productId) {
+        // Corps sérialisé à la projection : ni mapping ni Jackson par requête
+        return readProductService.findSerializedById(productId)
+                .map(product -> product
+                        .map(p -> ok(p, null))
+                        .orElseGet(() -> RestResponse.status(RestResponse.Status.NOT_FOUND)));
+    }
+
+    private static RestResponse<byte[]> ok(SerializedProductView product, String ifNoneMatch) {
+        final EntityTag etag = ETags.ofVersion(product.view().getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return RestResponse.ResponseBuilder.<byte[]>notModified(etag).build();
         }
-        return RestResponse.ok(productViewDtoMapper.toDto(product.get()));
+        return RestResponse.ResponseBuilder.ok(product.body(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(etag)
+                .build();
+    }
+
+    /**
+     * Flux des changements : les résumés des produits modifiés après la position
+     * {@code since}, et la position à partir de laquelle lire la suite.
+     */
+    @GET
+    @Path("/changes")
+    @RunOnVirtualThread
+    public RestResponse<ProductChangesDto> getChanges(
+            @QueryParam("since") @DefaultValue("0") long since,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (since < 0 || limit < 1 || limit > CHANGES_MAX_LIMIT) {
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        final ChangesResult result = readProductService.findChangesSince(since, limit);
+        return RestResponse.ok(new ProductChangesDto(result.page().stream()
+                .map(productSummaryDtoMapper::toDto)
+                .toList(),
+                result.nextPosition(),
+                result.hasMore()));
+    }
+
+    /**
+     * Export de tout le catalogue en NDJSON, en une seule requête : les résumés triés par
+     * SKU, les vues complètes par identifiant.
+     *
+     * @param view {@code summary} (par défaut) pour les résumés, {@code full} pour les vues complètes
+     */
+    @GET
+    @Path("/export")
+    @Produces(APPLICATION_NDJSON)
+    @RunOnVirtualThread
+    public RestResponse<StreamingOutput> exportProducts(
+            @QueryParam("view") @DefaultValue("summary") String view) {
+        return switch (view) {
+            case "summary" -> RestResponse.ok((StreamingOutput) exporter::exportSummaries);
+            case "full" -> RestResponse.ok((StreamingOutput) exporter::exportViews);
+            default -> RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        };
+    }
+
+    /**
+     * Lecture groupée : un tableau JSON des produits trouvés, dans l'ordre des identifiants
+     * demandés ; les identifiants inconnus sont omis.
+     */
+    @POST
+    @Path("/_bulkGet")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
+    public RestResponse<byte[]> bulkGetProducts(BulkGetProductsQueryDto query) {
+        if (query == null || query.ids() == null || query.ids().size() > BULK_GET_MAX_IDS) {
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        final List<ProductId> productIds;
+        try {
+            productIds = query.ids().stream()
+                    .map(id -> productIdMapper.map(UUID.fromString(id)))
+                    .toList();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST);
+        }
+        // Les corps sont déjà sérialisés : le tableau est assemblé octet par octet
+        final List<SerializedProductView> products = readProductService.findSerializedByIds(productIds);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write('[');
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.writeBytes(products.get(i).body());
+        }
+        body.write(']');
+        return RestResponse.ResponseBuilder.ok(body.toByteArray(), MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    /**
+     * Le curseur est le dernier SKU de la page, encodé pour rester opaque aux clients.
+     */
+    private static String encodeCursor(SkuId last) {
+        return CURSOR_ENCODER.encodeToString(last.value().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static SkuId decodeCursor(String cursor) {
+        return new SkuId(new String(CURSOR_DECODER.decode(cursor), StandardCharsets.US_ASCII));
     }
-}
\ No newline at end of file
+}
@@ -1,51 +1,117 @@
 package org.ormi.priv.tfa.orderflow.productregistry.read.infra.api;
 
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductIdMapper;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.LiveSearchSubscriptions;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.core.buffer.Buffer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 
 /**
- * Ressource REST pour le streaming en temps réel des événements produits.
+ * Ressource REST pour le streaming en temps réel des événements produits (SSE).
  *
- * <p>Fournira à terme les endpoints SSE/WebSocket pour que les clients
- * reçoivent les événements produits en temps réel.</p>
- *
- * <p>Endpoints prévus (à implémenter) :</p>
+ * <p>Endpoints :</p>
  * <ul>
  *   <li>GET /products/{id}/pending/stream : streaming des événements d'un produit</li>
- *   <li>GET /products/search/stream : streaming des événements d'une recherche</li>
+ *   <li>GET /products/search/stream : streaming des changements du résultat d'une recherche par SKU</li>
  * </ul>
  *
+ * <p>Chaque élément est le JSON d'un {@code ProductStreamElementDto}, ou d'un
+ * {@code ProductSearchStreamElementDto} pour une recherche, encodé une seule fois pour tous
+ * les abonnés : il est écrit tel quel dans le champ {@code data} de l'événement SSE.</p>
+ *
+ * <p>Le paramètre {@code overflow} choisit le traitement d'un client trop lent
+ * ({@code drop_oldest}, {@code conflate_by_product} ou {@code disconnect}) ; sans lui, celui
+ * de la configuration s'applique.</p>
+ *
+ * <p>Sur le flux d'un produit, l'{@code id} de chaque événement SSE est sa séquence dans
+ * l'agrégat : un client qui se reconnecte avec {@code Last-Event-ID} reçoit d'abord les
+ * événements manqués, puis le direct.</p>
+ *
  * @see ProductEventBroadcaster pour la diffusion d'événements
+ * @see LiveSearchSubscriptions pour les recherches suivies
  * @see ReadProductService pour la logique de recherche
  */
-
 @Path("/products")
-/**
- * Class ProductStreamResource.
- *
- * <p>Package: org.ormi.priv.tfa.orderflow.productregistry.read.infra.api</p>
- *
- * <p>Documentation générée automatiquement : compléter si besoin avec des détails métier.</p>
- */
 public class ProductStreamResource {
 
-    // TODO: implement [Exercice 5]
-    // private final ReadProductService readProductService;
-    // private final ProductIdMapper productIdMapper;
-
-    // @Inject
-    // public ProductStreamResource(
-    //         ReadProductService readProductService,
-    //         ProductIdMapper productIdMapper) {
-    //     this.readProductService = readProductService;
-    //     this.productIdMapper = productIdMapper;
-    // }
-
-    // TODO: implement [Exercice 5]
-    // @GET
-    // @Path("/{id}/pending/stream")
-    // @RestStreamElementType(MediaType.APPLICATION_JSON)
-    // public Multi<ProductStreamElementDto> streamPendingOutboxMessagesByProdutId(
-    //         @PathParam("id") String id) {
-    //     throw new UnsupportedOperationException("TODO: implement [Exercice 5]");
-    // }
+    private final ReadProductService readProductService;
+    private final ProductIdMapper productIdMapper;
+
+    @Inject
+    public ProductStreamResource(
+            ReadProductService readProductService,
+            ProductIdMapper productIdMapper) {
+        this.readProductService = readProductService;
+        this.productIdMapper = productIdMapper;
+    }
+
+    @GET
+    @Path("/{id}/pending/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<OutboundSseEvent> streamPendingOutboxMessagesByProdutId(
+            @PathParam("id") String id,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) Long lastEventId,
+            @QueryParam("overflow") String overflow,
+            @Context Sse sse) {
+        final UUID productId;
+        try {
+            productId = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid product id: " + id);
+        }
+        return readProductService.streamProductEvents(
+                productIdMapper.map(productId),
+                lastEventId != null ? OptionalLong.of(lastEventId) : OptionalLong.empty(),
+                overflowPolicy(overflow))
+                .map(frame -> sse.newEventBuilder()
+                        .id(Long.toString(frame.sequence()))
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(Buffer.class, frame.body())
+                        .build());
+    }
+
+    @GET
+    @Path("/search/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<Buffer> streamSearchEvents(@QueryParam("sku") @DefaultValue("") String sku,
+            @QueryParam("overflow") String overflow) {
+        // Le résultat initial se lit par GET /products?sku= ; le flux en donne les changements
+        return readProductService.streamProductListEvents(sku, overflowPolicy(overflow));
+    }
+
+    private static Optional<OverflowPolicy> overflowPolicy(String overflow) {
+        if (overflow == null || overflow.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(OverflowPolicy.valueOf(overflow.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown overflow policy: " + overflow);
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.api;
+
+import org.jboss.resteasy.reactive.RestResponse;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild.ProductViewRebuilder;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild.RebuildProgress;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Ressource d'administration des projections.
+ *
+ * <ul>
+ *   <li>POST /admin/projections/product-view/rebuild : lance une reconstruction (202, ou 409 si déjà en cours)</li>
+ *   <li>GET /admin/projections/product-view/rebuild : avancement de la dernière reconstruction</li>
+ * </ul>
+ *
+ * <p>Réservée au rôle {@value #ADMIN_ROLE} (authentification basique) : une reconstruction
+ * relit tout le journal d'événements.</p>
+ */
+@Path("/admin/projections/product-view")
+@RolesAllowed(ProjectionAdminResource.ADMIN_ROLE)
+@Produces(MediaType.APPLICATION_JSON)
+public class ProjectionAdminResource {
+
+    static final String ADMIN_ROLE = "admin";
+
+    private final ProductViewRebuilder rebuilder;
+
+    @Inject
+    public ProjectionAdminResource(ProductViewRebuilder rebuilder) {
+        this.rebuilder = rebuilder;
+    }
+
+    @POST
+    @Path("/rebuild")
+    @RunOnVirtualThread
+    public RestResponse<RebuildProgress.Snapshot> rebuild() {
+        return rebuilder.start()
+                .map(progress -> RestResponse.accepted(progress.snapshot()))
+                .orElseGet(() -> RestResponse.status(RestResponse.Status.CONFLICT, rebuilder.progress().snapshot()));
+    }
+
+    @GET
+    @Path("/rebuild")
+    @RunOnVirtualThread
+    public RestResponse<RebuildProgress.Snapshot> rebuildProgress() {
+        return RestResponse.ok(rebuilder.progress().snapshot());
+    }
+}
@@ -0,0 +1,136 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductSummaryDto;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductViewSerializer;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewEntity;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewJpaMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Export du catalogue au format NDJSON (un objet JSON par ligne).
+ *
+ * <p>Une seule requête, triée par SKU pour les résumés et par identifiant pour les vues
+ * complètes (la clé primaire évite de trier ces lignes volumineuses), est lue par un
+ * curseur côté serveur ({@code fetchSize}) et chaque ligne est écrite dès sa lecture : la
+ * mémoire utilisée ne dépend pas de la taille du catalogue. La lecture se fait dans une
+ * transaction en lecture seule, donc sur un instantané cohérent.</p>
+ *
+ * <p>Les vues complètes ont le format de {@code GET /products/{id}}, les résumés celui des
+ * éléments de {@code GET /products}.</p>
+ */
+@ApplicationScoped
+public class ProductCatalogExporter {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SQL_SUMMARIES = "SELECT id, sku_id, name, status, catalog_count"
+            + " FROM read_product_registry.product_summary ORDER BY sku_id";
+    private static final String SQL_VIEWS = "SELECT id, _version, sku_id, name, description, status, events,"
+            + " catalogs, catalog_count, created_at, updated_at"
+            + " FROM read_product_registry.product_view ORDER BY id";
+
+    private final AgroalDataSource dataSource;
+    private final ProductViewJpaMapper viewMapper;
+    private final ProductViewSerializer serializer;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public ProductCatalogExporter(
+            AgroalDataSource dataSource,
+            ProductViewJpaMapper viewMapper,
+            ProductViewSerializer serializer,
+            ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.viewMapper = viewMapper;
+        this.serializer = serializer;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Écrit tous les résumés de produit.
+     *
+     * @param out le flux de la réponse
+     */
+    public void exportSummaries(OutputStream out) throws IOException {
+        export(out, SQL_SUMMARIES, rs -> objectMapper.writeValueAsBytes(new ProductSummaryDto(
+                rs.getObject("id", UUID.class).toString(),
+                rs.getString("sku_id"),
+                rs.getString("name"),
+                rs.getString("status"),
+                rs.getInt("catalog_count"))));
+    }
+
+    /**
+     * Écrit toutes les vues de produit complètes.
+     *
+     * @param out le flux de la réponse
+     */
+    public void exportViews(OutputStream out) throws IOException {
+        export(out, SQL_VIEWS, rs -> serializer.serialize(viewMapper.toDomain(toEntity(rs), objectMapper)));
+    }
+
+    private void export(OutputStream out, String sql, RowWriter rowWriter) throws IOException {
+        final BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try (Connection conn = dataSource.getConnection()) {
+            // Sans transaction ouverte, le pilote lit tout le résultat avant de rendre la main
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        buffered.write(rowWriter.write(rs));
+                        buffered.write('\n');
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Product export failed", e);
+        }
+        buffered.flush();
+    }
+
+    private ProductViewEntity toEntity(ResultSet rs) throws SQLException, IOException {
+        final ProductViewEntity entity = new ProductViewEntity();
+        entity.setId(rs.getObject("id", UUID.class));
+        entity.setVersion(rs.getLong("_version"));
+        entity.setSkuId(rs.getString("sku_id"));
+        entity.setName(rs.getString("name"));
+        entity.setDescription(rs.getString("description"));
+        entity.setStatus(ProductLifecycle.valueOf(rs.getString("status")));
+        entity.setEvents(objectMapper.readTree(rs.getString("events")));
+        entity.setCatalogs(objectMapper.readTree(rs.getString("catalogs")));
+        entity.setCatalogCount(rs.getInt("catalog_count"));
+        entity.setCreatedAt(toInstant(rs.getObject("created_at", OffsetDateTime.class)));
+        entity.setUpdatedAt(toInstant(rs.getObject("updated_at", OffsetDateTime.class)));
+        return entity;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        byte[] write(ResultSet rs) throws SQLException, IOException;
+    }
+}
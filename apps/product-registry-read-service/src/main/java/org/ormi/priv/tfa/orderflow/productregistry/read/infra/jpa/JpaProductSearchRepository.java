@@ -0,0 +1,101 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSearchRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implémentation de {@link ProductSearchRepository} sur la table {@code product_search} :
+ * un {@code tsvector} par produit, sous index GIN.
+ *
+ * <p>Le nom pèse plus que la description dans le classement ({@code ts_rank_cd}). La
+ * configuration {@code simple} ne dépend d'aucune langue : les noms de produit ne sont pas
+ * racinisés.</p>
+ */
+@ApplicationScoped
+public class JpaProductSearchRepository implements ProductSearchRepository {
+
+    private static final String DOCUMENT = "setweight(to_tsvector('simple', v.name), 'A')"
+            + " || setweight(to_tsvector('simple', v.description), 'B')";
+    private static final String UPSERT = """
+             ON CONFLICT (id) DO UPDATE SET _version = EXCLUDED._version, document = EXCLUDED.document
+             WHERE product_search._version < EXCLUDED._version
+            """;
+    private static final String SQL_REINDEX = "INSERT INTO read_product_registry.product_search (id, _version, document)"
+            + " SELECT v.id, v._version, " + DOCUMENT
+            + " FROM read_product_registry.product_view v WHERE v.id = ANY(?1)"
+            + UPSERT;
+    private static final String SQL_REINDEX_STALE = "INSERT INTO read_product_registry.product_search (id, _version, document)"
+            + " SELECT v.id, v._version, " + DOCUMENT
+            + " FROM read_product_registry.product_view v"
+            + " LEFT JOIN read_product_registry.product_search f ON f.id = v.id"
+            + " WHERE f.id IS NULL OR f._version < v._version"
+            + " LIMIT ?1"
+            + UPSERT;
+    private static final String SQL_SEARCH = """
+            SELECT s.id, s._version, s.sku_id, s.name, s.status, s.catalog_count
+            FROM read_product_registry.product_search f
+            JOIN read_product_registry.product_summary s ON s.id = f.id,
+                 websearch_to_tsquery('simple', ?1) AS query
+            WHERE f.document @@ query AND s.sku_id LIKE ?2
+            ORDER BY ts_rank_cd(f.document, query) DESC, s.sku_id
+            OFFSET ?3 LIMIT ?4
+            """;
+    private static final String SQL_COUNT = """
+            SELECT count(*)
+            FROM read_product_registry.product_search f
+            JOIN read_product_registry.product_summary s ON s.id = f.id
+            WHERE f.document @@ websearch_to_tsquery('simple', ?1) AND s.sku_id LIKE ?2
+            """;
+
+    private final EntityManager entityManager;
+
+    public JpaProductSearchRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void reindex(List<ProductId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        entityManager.createNativeQuery(SQL_REINDEX)
+                .setParameter(1, ids.stream().map(ProductId::value).toArray(UUID[]::new))
+                .executeUpdate();
+    }
+
+    @Override
+    public int reindexStale(int limit) {
+        return entityManager.createNativeQuery(SQL_REINDEX_STALE)
+                .setParameter(1, limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<ProductSummary> search(String query, String skuIdPattern, int offset, int limit) {
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = entityManager.createNativeQuery(SQL_SEARCH)
+                .setParameter(1, query)
+                .setParameter(2, "%" + skuIdPattern + "%")
+                .setParameter(3, offset)
+                .setParameter(4, limit)
+                .getResultList();
+        return rows.stream()
+                .map(JpaProductSummaryRepository::fromRow)
+                .toList();
+    }
+
+    @Override
+    public long count(String query, String skuIdPattern) {
+        return ((Number) entityManager.createNativeQuery(SQL_COUNT)
+                .setParameter(1, query)
+                .setParameter(2, "%" + skuIdPattern + "%")
+                .getSingleResult()).longValue();
+    }
+}
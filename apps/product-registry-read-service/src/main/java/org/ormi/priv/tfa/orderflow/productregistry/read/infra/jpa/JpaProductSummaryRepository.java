@@ -0,0 +1,168 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class JpaProductSummaryRepository
+        implements PanacheRepositoryBase<ProductSummaryEntity, UUID>, ProductSummaryRepository {
+
+    /**
+     * Verrou consultatif de l'unique écrivain des positions de changement, tenu jusqu'à sa
+     * validation : les positions sont ainsi visibles dans l'ordre croissant. Les
+     * projections ne le prennent pas.
+     */
+    public static final long CHANGE_LOCK_KEY = 0x70726463686eL;
+
+    // Le changement est en attente de position jusqu'au passage de l'écrivain
+    private static final String SQL_RECORD_CHANGE = """
+            INSERT INTO read_product_registry.product_change (id, change_position)
+            VALUES (?1, NULL)
+            ON CONFLICT (id) DO UPDATE SET change_position = NULL
+            """;
+    private static final String SQL_SEQUENCE_PENDING = """
+            UPDATE read_product_registry.product_change c
+            SET change_position = nextval('read_product_registry.product_change_seq')
+            FROM (
+                SELECT id FROM read_product_registry.product_change
+                WHERE change_position IS NULL
+                LIMIT ?1
+                FOR UPDATE SKIP LOCKED
+            ) AS pending
+            WHERE c.id = pending.id
+            """;
+    private static final String SQL_CHANGED_SINCE = """
+            SELECT s.id, s._version, s.sku_id, s.name, s.status, s.catalog_count, c.change_position
+            FROM read_product_registry.product_change c
+            JOIN read_product_registry.product_summary s ON s.id = c.id
+            WHERE c.change_position > ?1
+            ORDER BY c.change_position
+            LIMIT ?2
+            """;
+
+    @Override
+    public void save(ProductSummary summary) {
+        final ProductSummaryEntity entity = findByIdOptional(summary.getId().value())
+                .orElseGet(() -> {
+                    final ProductSummaryEntity created = new ProductSummaryEntity();
+                    created.setId(summary.getId().value());
+                    persist(created);
+                    return created;
+                });
+        entity.setVersion(summary.getVersion());
+        entity.setSkuId(summary.getSkuId().value());
+        entity.setName(summary.getName());
+        entity.setStatus(summary.getStatus());
+        entity.setCatalogCount(summary.getCatalogs());
+        entity.setUpdatedAt(Instant.now());
+        getEntityManager().createNativeQuery(SQL_RECORD_CHANGE)
+                .setParameter(1, summary.getId().value())
+                .executeUpdate();
+    }
+
+    @Override
+    public List<ProductSummary> findBySkuIdsOrderBySkuId(List<SkuId> skuIds) {
+        if (skuIds.isEmpty()) {
+            return List.of();
+        }
+        return find("skuId IN ?1 ORDER BY skuId, id", skuIds.stream().map(SkuId::value).distinct().toList())
+                .list()
+                .stream()
+                .map(JpaProductSummaryRepository::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<ProductSummary> searchOrderBySkuId(String skuIdPattern, Optional<SkuId> after, int offset,
+            int limit) {
+        final String like = "%" + skuIdPattern + "%";
+        // Curseur : parcours d'intervalle de l'index sur sku_id, sans OFFSET
+        final PanacheQuery<ProductSummaryEntity> query = after.isPresent()
+                ? find("skuId LIKE ?1 AND skuId > ?2 ORDER BY skuId", like, after.get().value())
+                : find("skuId LIKE ?1 ORDER BY skuId", like);
+        return query
+                .range(offset, offset + limit - 1)
+                .list()
+                .stream()
+                .map(JpaProductSummaryRepository::toDomain)
+                .toList();
+    }
+
+    @Override
+    public long countBySkuIdPattern(String skuIdPattern) {
+        return count("skuId LIKE ?1", "%" + skuIdPattern + "%");
+    }
+
+    @Override
+    public List<SkuOwner> findAllSkuOwners() {
+        return getEntityManager()
+                .createQuery("SELECT e.id, e.skuId FROM ProductSummaryEntity e", Object[].class)
+                .getResultStream()
+                .map(row -> new SkuOwner(new ProductId((UUID) row[0]), new SkuId((String) row[1])))
+                .toList();
+    }
+
+    @Override
+    public List<Change> findChangedSince(long position, int limit) {
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = getEntityManager().createNativeQuery(SQL_CHANGED_SINCE)
+                .setParameter(1, position)
+                .setParameter(2, limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new Change(((Number) row[6]).longValue(), fromRow(row)))
+                .toList();
+    }
+
+    @Override
+    public int sequencePendingChanges(int limit) {
+        final Boolean acquired = (Boolean) getEntityManager()
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(?1)")
+                .setParameter(1, CHANGE_LOCK_KEY)
+                .getSingleResult();
+        if (!acquired) {
+            return 0;
+        }
+        return getEntityManager().createNativeQuery(SQL_SEQUENCE_PENDING)
+                .setParameter(1, limit)
+                .executeUpdate();
+    }
+
+    /**
+     * Résumé lu par une requête native dont les premières colonnes sont
+     * {@code id, _version, sku_id, name, status, catalog_count}.
+     */
+    static ProductSummary fromRow(Object[] row) {
+        return ProductSummary.Builder()
+                .id(new ProductId((UUID) row[0]))
+                .version(((Number) row[1]).longValue())
+                .skuId(new SkuId((String) row[2]))
+                .name((String) row[3])
+                .status(ProductLifecycle.valueOf((String) row[4]))
+                .catalogs(((Number) row[5]).intValue())
+                .build();
+    }
+
+    private static ProductSummary toDomain(ProductSummaryEntity entity) {
+        return ProductSummary.Builder()
+                .id(new ProductId(entity.getId()))
+                .version(entity.getVersion())
+                .skuId(new SkuId(entity.getSkuId()))
+                .name(entity.getName())
+                .status(entity.getStatus())
+                .catalogs(entity.getCatalogCount())
+                .build();
+    }
+}
@@ -42,6 +42,32 @@ public class JpaProductViewRepository implements PanacheRepositoryBase<ProductVi
                 .map(e -> mapper.toDomain(e, objectMapper));
     }
 
+    @Override
+    public List<ProductView> findByIds(List<ProductId> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Un seul paramètre tableau : le plan ne dépend pas du nombre d'identifiants
+        @SuppressWarnings("unchecked")
+        final List<ProductViewEntity> entities = getEntityManager()
+                .createNativeQuery("SELECT * FROM read_product_registry.product_view WHERE id = ANY(?1)",
+                        ProductViewEntity.class)
+                .setParameter(1, ids.stream().map(ProductId::value).toArray(UUID[]::new))
+                .getResultList();
+        return entities.stream()
+                .map(e -> mapper.toDomain(e, objectMapper))
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findVersionById(ProductId id) {
+        return getEntityManager()
+                .createQuery("SELECT e.version FROM ProductViewEntity e WHERE e.id = ?1", Long.class)
+                .setParameter(1, id.value())
+                .getResultStream()
+                .findFirst();
+    }
+
     @Override
     public Optional<ProductView> findBySkuId(SkuId skuId) {
         return find("skuId", skuId.value())
@@ -0,0 +1,56 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.cqrs.infra.persistence.ProjectionCheckpointRepository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implémentation JPA de {@link ProjectionCheckpointRepository} sur la table
+ * {@code projection_checkpoint}.
+ *
+ * <p>L'avancement est un upsert monotone : un point de reprise ne recule jamais.</p>
+ */
+@ApplicationScoped
+public class JpaProjectionCheckpointRepository implements ProjectionCheckpointRepository {
+
+    private static final String SQL_FIND = """
+            SELECT last_sequence FROM read_product_registry.projection_checkpoint
+            WHERE projection = ?1 AND aggregate_id = ?2
+            """;
+    private static final String SQL_ADVANCE = """
+            INSERT INTO read_product_registry.projection_checkpoint (projection, aggregate_id, last_sequence, updated_at)
+            VALUES (?1, ?2, ?3, now())
+            ON CONFLICT (projection, aggregate_id) DO UPDATE
+            SET last_sequence = GREATEST(projection_checkpoint.last_sequence, EXCLUDED.last_sequence),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final EntityManager entityManager;
+
+    public JpaProjectionCheckpointRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public OptionalLong findLastSequence(String projection, UUID aggregateId) {
+        final List<?> rows = entityManager.createNativeQuery(SQL_FIND)
+                .setParameter(1, projection)
+                .setParameter(2, aggregateId)
+                .getResultList();
+        return rows.isEmpty() ? OptionalLong.empty() : OptionalLong.of(((Number) rows.get(0)).longValue());
+    }
+
+    @Override
+    public void advance(String projection, UUID aggregateId, long sequence) {
+        entityManager.createNativeQuery(SQL_ADVANCE)
+                .setParameter(1, projection)
+                .setParameter(2, aggregateId)
+                .setParameter(3, sequence)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,59 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa;
+
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductViewRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReactiveProductViewRepository;
+
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+
+/**
+ * Implémentation bloquante de {@link ReactiveProductViewRepository} : les lectures passent
+ * par Hibernate ORM et JDBC, sur le pool de travail.
+ *
+ * <p>Retenue avec {@code product-registry.read.by-id-repository=jpa} à la place de
+ * l'implémentation réactive, pour comparer les deux chemins sur la même requête
+ * {@code GET /products/{id}} : chaque lecture hors cache occupe un thread de travail et une
+ * connexion JDBC le temps de la requête SQL.</p>
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "product-registry.read.by-id-repository", stringValue = "jpa")
+public class JpaWorkerProductViewRepository implements ReactiveProductViewRepository {
+
+    private final ProductViewRepository repository;
+
+    @Inject
+    public JpaWorkerProductViewRepository(ProductViewRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Uni<Optional<ProductView>> findById(ProductId id) {
+        return Uni.createFrom().item(() -> read(id))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    @Override
+    public Uni<Optional<Long>> findVersionById(ProductId id) {
+        return Uni.createFrom().item(() -> readVersion(id))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    // Sur le thread de travail, hors du contexte de requête HTTP
+    @ActivateRequestContext
+    protected Optional<ProductView> read(ProductId id) {
+        return repository.findById(id);
+    }
+
+    @ActivateRequestContext
+    protected Optional<Long> readVersion(ProductId id) {
+        return repository.findVersionById(id);
+    }
+}
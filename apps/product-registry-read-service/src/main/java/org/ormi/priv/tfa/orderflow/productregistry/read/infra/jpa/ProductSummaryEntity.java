@@ -0,0 +1,68 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entité JPA du résumé de produit, modèle de lecture des listes.
+ *
+ * <p>Table étroite, sans colonne jsonb, alimentée par la projection en même temps que
+ * {@link ProductViewEntity}. Le facteur de remplissage réduit laisse de la place dans
+ * chaque page pour des mises à jour HOT : renommer ou retirer un produit ne touche pas
+ * l'index sur le SKU.</p>
+ *
+ * <p>Colonnes :</p>
+ * <ul>
+ *   <li>{@link #id} : identifiant unique (UUID)</li>
+ *   <li>{@link #version} : séquence du dernier événement appliqué</li>
+ *   <li>{@link #skuId} : numéro SKU</li>
+ *   <li>{@link #name} : nom actuel du produit</li>
+ *   <li>{@link #status} : état du cycle de vie</li>
+ *   <li>{@link #catalogCount} : nombre de catalogues</li>
+ *   <li>{@link #updatedAt} : date de dernière écriture</li>
+ * </ul>
+ *
+ * @see JpaProductSummaryRepository pour le repository
+ */
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Entity
+@Table(
+    schema = "read_product_registry",
+    name = "product_summary",
+    indexes = {
+        @Index(name = "ix_prdsummary_sku", columnList = "sku_id")
+    })
+public class ProductSummaryEntity {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID id;
+    @Column(name = "_version", nullable = false, columnDefinition = "bigint")
+    private Long version;
+    @Column(name = "sku_id", nullable = false, length = 9, columnDefinition = "varchar(9)")
+    private String skuId;
+    @Column(name = "name", nullable = false, columnDefinition = "text")
+    private String name;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "text")
+    private ProductLifecycle status;
+    @Column(name = "catalog_count", nullable = false, columnDefinition = "int")
+    private int catalogCount;
+    @Column(name = "updated_at", nullable = false, columnDefinition = "timestamptz")
+    private Instant updatedAt;
+}
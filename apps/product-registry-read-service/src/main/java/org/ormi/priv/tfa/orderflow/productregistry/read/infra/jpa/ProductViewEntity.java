@@ -37,6 +37,7 @@ import lombok.Setter;
  *   <li>{@link #status} : état du cycle de vie</li>
  *   <li>{@link #events} : historique des événements en JSON</li>
  *   <li>{@link #catalogs} : liste des catalogues en JSON</li>
+ *   <li>{@link #catalogCount} : nombre de catalogues, pour lister sans lire le JSON</li>
  *   <li>{@link #createdAt} : date de création</li>
  *   <li>{@link #updatedAt} : date de dernière mise à jour</li>
  * </ul>
@@ -81,6 +82,8 @@ public class ProductViewEntity {
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "catalogs", nullable = false, columnDefinition = "jsonb")
     private JsonNode catalogs;
+    @Column(name = "catalog_count", nullable = false, columnDefinition = "int")
+    private int catalogCount;
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "timestamptz")
     private Instant createdAt;
     @Column(name = "updated_at", nullable = false, columnDefinition = "timestamptz")
@@ -34,6 +34,7 @@ public interface ProductViewJpaMapper {
 
     @Mapping(target = "events", expression = "java(productViewEventListToJsonNode(productView.getEvents(), objectMapper))")
     @Mapping(target = "catalogs", expression = "java(productViewCatalogRefListToJsonNode(productView.getCatalogs(), objectMapper))")
+    @Mapping(target = "catalogCount", expression = "java(productView.getCatalogs().size())")
     public ProductViewEntity toEntity(ProductView productView, @Context ObjectMapper objectMapper);
 
     @Mapping(target = "events", expression = "java(jsonNodeToProductViewEventList(entity.getEvents(), objectMapper))")
@@ -42,6 +43,7 @@ public interface ProductViewJpaMapper {
 
     @Mapping(target = "events", expression = "java(productViewEventListToJsonNode(productView.getEvents(), objectMapper))")
     @Mapping(target = "catalogs", expression = "java(productViewCatalogRefListToJsonNode(productView.getCatalogs(), objectMapper))")
+    @Mapping(target = "catalogCount", expression = "java(productView.getCatalogs().size())")
     public void updateEntity(ProductView productView, @MappingTarget ProductViewEntity entity, @Context ObjectMapper objectMapper);
 
     default JsonNode productViewEventListToJsonNode(List<ProductViewEvent> events, @Context ObjectMapper om) {
@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -47,6 +48,8 @@ public class OutboxPartitionedPoller {
     private static final int POLL_INTERVAL_MS = 1000;
     private static final int MAX_RETRIES = 3;
     private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration REORDER_WAIT = Duration.ofSeconds(3);
+    private static final int REORDER_MAX_HELD = 64;
 
     private static final Logger LOG = Logger.getLogger(OutboxPartitionedPoller.class);
 
@@ -56,6 +59,7 @@ public class OutboxPartitionedPoller {
             .toArray(ExecutorService[]::new);
 
     private final Map<UUID, Instant> blockedUntil = new ConcurrentHashMap<>();
+    private final ReorderBuffer reorderBuffer = new ReorderBuffer(REORDER_WAIT, REORDER_MAX_HELD);
 
     private final OutboxRepository outbox;
     private final ProjectionDispatcher dispatcher;
@@ -99,6 +103,10 @@ public class OutboxPartitionedPoller {
                     // Still blocked, skip processing
                     return;
                 }
+                if (reorderBuffer.isHeld(msg, Instant.now())) {
+                    // Already submitted, waiting in the reorder buffer for the missing event
+                    return;
+                }
                 // Get corresponding partition
                 int partition = Math.floorMod(aggregateId.hashCode(), PARTITIONS);
                 executors[partition].submit(() -> process(msg));
@@ -111,11 +119,25 @@ public class OutboxPartitionedPoller {
     private void process(OutboxEntity outboxMsg) {
         var ev = outboxMsg.getSourceEvent();
         try {
+            if (dispatcher.isAlreadyProjected(ev.getAggregateType(), ev.getAggregateId(), ev.getAggregateVersion())) {
+                // Redelivered or stale: acknowledge without projecting
+                LOG.debugf("Skipping already projected event aggregateId=%s, version=%d",
+                        ev.getAggregateId(), ev.getAggregateVersion());
+                outbox.delete(outboxMsg);
+                return;
+            }
+            final OptionalLong expected = dispatcher.nextExpectedSequence(ev.getAggregateType(), ev.getAggregateId());
+            if (expected.isPresent() && ev.getAggregateVersion() > expected.getAsLong()) {
+                holdOrReportGap(outboxMsg, expected.getAsLong());
+                return;
+            }
             if (ev.getEventVersion() == ProductEventVersion.V1.getValue()) {
                 final ProjectionResult<ProductView> result = dispatcher.dispatch(
                         mapper.toProductEventV1(ev));
                 if (result.isSuccess()) {
                     outbox.delete(outboxMsg);
+                    reorderBuffer.release(ev.getAggregateId(), ev.getAggregateVersion() + 1)
+                            .ifPresent(this::process);
                     return;
                 }
                 if (result.isNoOp()) {
@@ -125,13 +147,35 @@ public class OutboxPartitionedPoller {
                 if (result.isFailure()) {
                     outbox.markFailed(outboxMsg, result.getError(), Long.valueOf(RETRY_DELAY.toMillis()).intValue());
                 }
-                blockedUntil.put(outboxMsg.getSourceEvent().getAggregateId(), Instant.now().plus(RETRY_DELAY));
+                block(ev.getAggregateId());
             }
         } catch (Exception e) {
             LOG.error(String.format("ProjectionDispatcher failed for outbox message id=%d, aggregateId=%s: %s",
                     outboxMsg.getId(), ev.getAggregateId(), e.getMessage()), e);
             outbox.markFailed(outboxMsg, e.getMessage(), Long.valueOf(RETRY_DELAY.toMillis()).intValue());
-            blockedUntil.put(outboxMsg.getSourceEvent().getAggregateId(), Instant.now().plus(RETRY_DELAY));
+            block(ev.getAggregateId());
         }
     }
+
+    /**
+     * Retient un événement en avance sur la vue, ou signale le trou si l'attente est épuisée.
+     */
+    private void holdOrReportGap(OutboxEntity outboxMsg, long expected) {
+        var ev = outboxMsg.getSourceEvent();
+        if (reorderBuffer.hold(outboxMsg, Instant.now())) {
+            LOG.debugf("Holding out of order event aggregateId=%s, version=%d (expected %d)",
+                    ev.getAggregateId(), ev.getAggregateVersion(), expected);
+            return;
+        }
+        final String error = String.format("Sequence gap: expected version %d, got %d",
+                expected, ev.getAggregateVersion());
+        LOG.warnf("%s for aggregateId=%s", error, ev.getAggregateId());
+        outbox.markFailed(outboxMsg, error, Long.valueOf(RETRY_DELAY.toMillis()).intValue());
+        block(ev.getAggregateId());
+    }
+
+    private void block(UUID aggregateId) {
+        reorderBuffer.discard(aggregateId);
+        blockedUntil.put(aggregateId, Instant.now().plus(RETRY_DELAY));
+    }
 }
@@ -0,0 +1,129 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.OutboxEntity;
+
+/**
+ * Tampon de réordonnancement des messages d'outbox, par agrégat.
+ *
+ * <p>Un message dont la séquence est en avance sur la vue est retenu ici jusqu'à ce que
+ * l'événement manquant soit projeté, puis libéré aussitôt. Un agrégat ne peut attendre
+ * plus de {@code maxWait} ni retenir plus de {@code maxHeld} messages : au-delà, le trou
+ * est considéré comme réel.</p>
+ *
+ * <p>Les messages d'un agrégat sont tous traités par la même partition : l'état d'un
+ * agrégat n'est donc jamais modifié en concurrence. Seul {@link #isHeld} est appelé
+ * d'ailleurs, par le thread de lecture de l'outbox.</p>
+ */
+final class ReorderBuffer {
+
+    private final Duration maxWait;
+    private final int maxHeld;
+    private final Map<UUID, Held> held = new ConcurrentHashMap<>();
+    private final Set<Long> heldIds = ConcurrentHashMap.newKeySet();
+
+    ReorderBuffer(Duration maxWait, int maxHeld) {
+        this.maxWait = maxWait;
+        this.maxHeld = maxHeld;
+    }
+
+    /**
+     * Retient un message en avance.
+     *
+     * @param message le message
+     * @param now     l'instant courant
+     * @return faux si l'attente de l'agrégat est épuisée : le trou doit être signalé
+     */
+    boolean hold(OutboxEntity message, Instant now) {
+        final UUID aggregateId = message.getSourceEvent().getAggregateId();
+        final Held pending = held.computeIfAbsent(aggregateId, id -> new Held(now));
+        if (now.isAfter(pending.waitingSince.plus(maxWait))) {
+            return false;
+        }
+        final long sequence = message.getSourceEvent().getAggregateVersion();
+        if (!pending.messages.containsKey(sequence) && pending.messages.size() >= maxHeld) {
+            return false;
+        }
+        forget(pending.messages.put(sequence, message));
+        heldIds.add(message.getId());
+        return true;
+    }
+
+    /**
+     * Indique si le message est retenu : il est encore dans l'outbox, mais ne doit pas être
+     * soumis de nouveau. Une fois l'attente de son agrégat épuisée, il ne l'est plus : le
+     * message soumis de nouveau est refusé par {@link #hold} et le trou est signalé.
+     *
+     * @param message le message lu dans l'outbox
+     * @param now     l'instant courant
+     * @return vrai si le message est retenu
+     */
+    boolean isHeld(OutboxEntity message, Instant now) {
+        if (!heldIds.contains(message.getId())) {
+            return false;
+        }
+        final Held pending = held.get(message.getSourceEvent().getAggregateId());
+        return pending != null && !now.isAfter(pending.waitingSince.plus(maxWait));
+    }
+
+    /**
+     * Libère le message retenu de séquence donnée.
+     *
+     * @param aggregateId l'agrégat
+     * @param sequence    la séquence désormais attendue
+     * @return le message, s'il était retenu
+     */
+    Optional<OutboxEntity> release(UUID aggregateId, long sequence) {
+        final Held pending = held.get(aggregateId);
+        if (pending == null) {
+            return Optional.empty();
+        }
+        final Map<Long, OutboxEntity> stale = pending.messages.headMap(sequence);
+        stale.values().forEach(this::forget);
+        stale.clear();
+        final OutboxEntity message = pending.messages.remove(sequence);
+        forget(message);
+        if (pending.messages.isEmpty()) {
+            held.remove(aggregateId);
+        } else if (message != null) {
+            // Le trou suivant dispose d'une nouvelle fenêtre d'attente
+            pending.waitingSince = Instant.now();
+        }
+        return Optional.ofNullable(message);
+    }
+
+    /**
+     * Abandonne les messages retenus pour l'agrégat ; ils restent dans l'outbox.
+     *
+     * @param aggregateId l'agrégat
+     */
+    void discard(UUID aggregateId) {
+        final Held pending = held.remove(aggregateId);
+        if (pending != null) {
+            pending.messages.values().forEach(this::forget);
+        }
+    }
+
+    private void forget(OutboxEntity message) {
+        if (message != null) {
+            heldIds.remove(message.getId());
+        }
+    }
+
+    private static final class Held {
+        private final TreeMap<Long, OutboxEntity> messages = new TreeMap<>();
+        private volatile Instant waitingSince;
+
+        private Held(Instant waitingSince) {
+            this.waitingSince = waitingSince;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.pg;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReactiveProductViewRepository;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewEntity;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewJpaMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Implémentation de {@link ReactiveProductViewRepository} sur le client Postgres réactif de
+ * Vert.x, avec son propre pool de connexions.
+ *
+ * <p>Les lignes sont converties par {@link ProductViewJpaMapper}, comme pour la lecture
+ * JPA : les deux chemins rendent la même vue. Implémentation retenue par défaut
+ * ({@code product-registry.read.by-id-repository=reactive}).</p>
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "product-registry.read.by-id-repository", stringValue = "reactive", lookupIfMissing = true)
+public class PgProductViewRepository implements ReactiveProductViewRepository {
+
+    // JSONB lu en texte : le mapper l'attend sous forme d'arbre Jackson
+    private static final String SQL_FIND_BY_ID = "SELECT id, _version, sku_id, name, description, status,"
+            + " events::text AS events, catalogs::text AS catalogs, catalog_count, created_at, updated_at"
+            + " FROM read_product_registry.product_view WHERE id = $1";
+    private static final String SQL_FIND_VERSION_BY_ID = "SELECT _version"
+            + " FROM read_product_registry.product_view WHERE id = $1";
+
+    private final Pool pool;
+    private final ProductViewJpaMapper viewMapper;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public PgProductViewRepository(Pool pool, ProductViewJpaMapper viewMapper, ObjectMapper objectMapper) {
+        this.pool = pool;
+        this.viewMapper = viewMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Uni<Optional<ProductView>> findById(ProductId id) {
+        return pool.preparedQuery(SQL_FIND_BY_ID)
+                .execute(Tuple.of(id.value()))
+                .map(rows -> first(rows, row -> viewMapper.toDomain(toEntity(row), objectMapper)));
+    }
+
+    @Override
+    public Uni<Optional<Long>> findVersionById(ProductId id) {
+        return pool.preparedQuery(SQL_FIND_VERSION_BY_ID)
+                .execute(Tuple.of(id.value()))
+                .map(rows -> first(rows, row -> row.getLong("_version")));
+    }
+
+    private static <T> Optional<T> first(RowSet<Row> rows, Function<Row, T> mapper) {
+        final RowIterator<Row> it = rows.iterator();
+        return it.hasNext() ? Optional.of(mapper.apply(it.next())) : Optional.empty();
+    }
+
+    private ProductViewEntity toEntity(Row row) {
+        final ProductViewEntity entity = new ProductViewEntity();
+        entity.setId(row.getUUID("id"));
+        entity.setVersion(row.getLong("_version"));
+        entity.setSkuId(row.getString("sku_id"));
+        entity.setName(row.getString("name"));
+        entity.setDescription(row.getString("description"));
+        entity.setStatus(ProductLifecycle.valueOf(row.getString("status")));
+        try {
+            entity.setEvents(objectMapper.readTree(row.getString("events")));
+            entity.setCatalogs(objectMapper.readTree(row.getString("catalogs")));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read product view " + entity.getId(), e);
+        }
+        entity.setCatalogCount(row.getInteger("catalog_count"));
+        entity.setCreatedAt(toInstant(row.getOffsetDateTime("created_at")));
+        entity.setUpdatedAt(toInstant(row.getOffsetDateTime("updated_at")));
+        return entity;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+}
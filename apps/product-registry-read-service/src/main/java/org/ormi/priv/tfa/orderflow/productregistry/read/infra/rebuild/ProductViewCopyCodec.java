@@ -0,0 +1,72 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild;
+
+import java.nio.charset.StandardCharsets;
+
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodage d'une ligne {@code product_view} au format CSV de {@code COPY ... FROM STDIN}.
+ *
+ * <p>Toute colonne ajoutée à {@link ProductViewEntity} doit l'être ici, dans le même ordre
+ * que {@link #COLUMNS}.</p>
+ */
+final class ProductViewCopyCodec {
+
+    static final String COLUMNS =
+            "id, _version, sku_id, name, description, status, events, catalogs, catalog_count, created_at, updated_at";
+
+    private ProductViewCopyCodec() {
+    }
+
+    /**
+     * Requête COPY alimentant la table donnée.
+     *
+     * @param qualifiedTable la table cible (schéma inclus)
+     * @return la requête COPY
+     */
+    static String copySql(String qualifiedTable) {
+        return "COPY " + qualifiedTable + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    /**
+     * Encode une entité en une ligne CSV terminée par un saut de ligne.
+     *
+     * @param entity       l'entité à encoder
+     * @param objectMapper le mappeur JSON des colonnes jsonb
+     * @return la ligne encodée en UTF-8
+     */
+    static byte[] encode(ProductViewEntity entity, ObjectMapper objectMapper) {
+        try {
+            final StringBuilder sb = new StringBuilder(256);
+            sb.append(entity.getId()).append(',')
+                    .append(entity.getVersion()).append(',');
+            quote(sb, entity.getSkuId()).append(',');
+            quote(sb, entity.getName()).append(',');
+            quote(sb, entity.getDescription()).append(',');
+            quote(sb, entity.getStatus().name()).append(',');
+            quote(sb, objectMapper.writeValueAsString(entity.getEvents())).append(',');
+            quote(sb, objectMapper.writeValueAsString(entity.getCatalogs())).append(',');
+            sb.append(entity.getCatalogCount()).append(',');
+            sb.append(entity.getCreatedAt()).append(',')
+                    .append(entity.getUpdatedAt()).append('\n');
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode product view " + entity.getId(), e);
+        }
+    }
+
+    private static StringBuilder quote(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+}
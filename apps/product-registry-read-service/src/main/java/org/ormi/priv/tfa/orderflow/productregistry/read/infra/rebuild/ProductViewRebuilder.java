@@ -0,0 +1,405 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.logging.Logger;
+import org.ormi.priv.tfa.orderflow.cqrs.Projector.ProjectionResult;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
+import org.ormi.priv.tfa.orderflow.kernel.Product;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.jpa.ProductEventJpaMapper;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProjectionCheckpoints;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProjectionDispatcher;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductSearchIndexer;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductViewCache;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.SearchResultCache;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.SkuIndex;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewJpaMapper;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild.RebuildProgress.Phase;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild.ShadowTable.Rename;
+import org.ormi.priv.tfa.orderflow.productregistry.read.projection.ProductViewProjector;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Reconstruction complète de {@code product_view} depuis le journal d'événements.
+ *
+ * <p>Le journal est lu en flux (curseur JDBC, instantané REPEATABLE READ), découpé par
+ * agrégat, et chaque historique est projeté en parallèle puis chargé par COPY dans une
+ * table fantôme. Les index sont construits après le chargement.</p>
+ *
+ * <p>La bascule se fait dans une seule transaction : la table vivante est verrouillée en
+ * écriture (les lectures continuent), les agrégats que la projection en ligne a fait
+ * avancer depuis l'instantané sont rejoués, puis la table fantôme remplace la table
+ * vivante ; les résumés et les points de reprise sont réalignés sur elle.</p>
+ */
+@ApplicationScoped
+public class ProductViewRebuilder {
+
+    private static final Logger LOG = Logger.getLogger(ProductViewRebuilder.class);
+
+    private static final String PRODUCT_AGGREGATE_TYPE = Product.class.getSimpleName();
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_IN_FLIGHT = PARALLELISM * 64;
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+    private static final long PROGRESS_LOG_INTERVAL_MS = 5_000;
+
+    private static final String SQL_EVENTS = """
+            SELECT aggregate_id, aggregate_version, event_type, event_version, occurred_at, payload::text
+            FROM eventing.event_log
+            WHERE aggregate_type = ?
+            ORDER BY aggregate_id, aggregate_version
+            """;
+    private static final String SQL_EVENTS_OF = """
+            SELECT aggregate_id, aggregate_version, event_type, event_version, occurred_at, payload::text
+            FROM eventing.event_log
+            WHERE aggregate_type = ? AND aggregate_id = ANY(?)
+            ORDER BY aggregate_id, aggregate_version
+            """;
+
+    private final AgroalDataSource dataSource;
+    private final ProductViewProjector projector;
+    private final ProductEventJpaMapper eventMapper;
+    private final ProductViewJpaMapper viewMapper;
+    private final ObjectMapper objectMapper;
+    private final ProjectionCheckpoints checkpoints;
+    private final SkuIndex skuIndex;
+    private final ProductViewCache viewCache;
+    private final ProductSearchIndexer searchIndexer;
+    private final SearchResultCache searchCache;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "product-view-rebuild"));
+    private volatile RebuildProgress progress = new RebuildProgress();
+
+    @Inject
+    public ProductViewRebuilder(
+            AgroalDataSource dataSource,
+            ProductViewProjector projector,
+            ProductEventJpaMapper eventMapper,
+            ProductViewJpaMapper viewMapper,
+            ObjectMapper objectMapper,
+            ProjectionCheckpoints checkpoints,
+            SkuIndex skuIndex,
+            ProductViewCache viewCache,
+            ProductSearchIndexer searchIndexer,
+            SearchResultCache searchCache) {
+        this.dataSource = dataSource;
+        this.projector = projector;
+        this.eventMapper = eventMapper;
+        this.viewMapper = viewMapper;
+        this.objectMapper = objectMapper;
+        this.checkpoints = checkpoints;
+        this.skuIndex = skuIndex;
+        this.viewCache = viewCache;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
+    }
+
+    /**
+     * Lance une reconstruction en arrière-plan.
+     *
+     * @return l'avancement de la reconstruction lancée, vide si une reconstruction est déjà en cours
+     */
+    public Optional<RebuildProgress> start() {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        final RebuildProgress started = new RebuildProgress();
+        started.start();
+        progress = started;
+        runner.execute(() -> {
+            try {
+                rebuild(started);
+            } finally {
+                running.set(false);
+            }
+        });
+        return Optional.of(started);
+    }
+
+    /**
+     * @return l'avancement de la dernière reconstruction
+     */
+    public RebuildProgress progress() {
+        return progress;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void rebuild(RebuildProgress progress) {
+        LOG.infof("Product view rebuild started (parallelism=%d)", PARALLELISM);
+        final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try (Connection reader = dataSource.getConnection(); Connection writer = dataSource.getConnection()) {
+            reader.setAutoCommit(false);
+            reader.setReadOnly(true);
+            writer.setAutoCommit(false);
+
+            // Chargement depuis un instantané cohérent du journal
+            reader.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            ShadowTable.recreate(writer);
+            try (PreparedStatement ps = reader.prepareStatement(SQL_EVENTS)) {
+                ps.setString(1, PRODUCT_AGGREGATE_TYPE);
+                load(ps, writer, pool, progress);
+            }
+            reader.commit();
+            writer.commit();
+
+            progress.phase(Phase.INDEXING);
+            LOG.infof("Product view rebuild loaded %d views, building indexes", progress.snapshot().viewsWritten());
+            final List<Rename> renames = ShadowTable.copyIndexes(writer);
+            writer.commit();
+
+            progress.phase(Phase.SWAPPING);
+            reader.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            ShadowTable.lockLiveForWrites(writer);
+            final List<UUID> stale = ShadowTable.staleAggregates(writer);
+            if (!stale.isEmpty()) {
+                ShadowTable.delete(writer, stale);
+                try (PreparedStatement ps = reader.prepareStatement(SQL_EVENTS_OF)) {
+                    ps.setString(1, PRODUCT_AGGREGATE_TYPE);
+                    ps.setArray(2, reader.createArrayOf("uuid", stale.toArray()));
+                    load(ps, writer, pool, progress);
+                }
+                reader.commit();
+                progress.caughtUp(stale.size());
+            }
+            final int carried = ShadowTable.carryForwardMissing(writer);
+            if (carried > 0) {
+                LOG.warnf("Product view rebuild kept the live view of %d aggregates that failed to replay", carried);
+            }
+            ShadowTable.swap(writer, renames);
+            ShadowTable.resetSummaries(writer);
+            ShadowTable.resetCheckpoints(writer, ProjectionDispatcher.PRODUCT_VIEW_PROJECTION);
+            writer.commit();
+            checkpoints.invalidateAll();
+            skuIndex.reload();
+            viewCache.invalidateAll();
+            searchIndexer.requestCatchUp();
+            searchCache.invalidateAll();
+
+            progress.done();
+            final RebuildProgress.Snapshot done = progress.snapshot();
+            LOG.infof("Product view rebuild done in %d ms: %d events, %d views, %d caught up, %d failed (%.0f events/s)",
+                    done.elapsedMs(), done.eventsRead(), done.viewsWritten(), done.caughtUpAggregates(),
+                    done.failedAggregates(), done.eventsPerSecond());
+        } catch (SQLException | RuntimeException e) {
+            LOG.error("Product view rebuild failed", e);
+            progress.fail(e.getMessage());
+            dropShadow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.fail("Interrupted");
+            dropShadow();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Lit les événements en flux, projette chaque agrégat en parallèle et charge les
+     * vues obtenues dans la table fantôme.
+     *
+     * <p>Le nombre de projections en attente d'écriture est borné par {@link #MAX_IN_FLIGHT}
+     * pour que la lecture ne distance pas le COPY.</p>
+     */
+    private void load(PreparedStatement events, Connection writer, ForkJoinPool pool, RebuildProgress progress)
+            throws SQLException, InterruptedException {
+        final CopyIn copy = writer.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn(ProductViewCopyCodec.copySql(ShadowTable.SHADOW));
+        final CopySink sink = new CopySink(copy, progress);
+        final BlockingQueue<Projected> completed = new LinkedBlockingQueue<>();
+        long lastLog = System.currentTimeMillis();
+        try {
+            events.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = events.executeQuery()) {
+                List<EventRow> history = new ArrayList<>();
+                while (rs.next()) {
+                    final EventRow row = EventRow.read(rs);
+                    if (!history.isEmpty() && !history.get(0).aggregateId().equals(row.aggregateId())) {
+                        submit(history, pool, completed, sink);
+                        history = new ArrayList<>();
+                    }
+                    history.add(row);
+                    final long now = System.currentTimeMillis();
+                    if (now - lastLog >= PROGRESS_LOG_INTERVAL_MS) {
+                        lastLog = now;
+                        final RebuildProgress.Snapshot snapshot = progress.snapshot();
+                        LOG.infof("Product view rebuild: %d events read, %d views written (%.0f events/s)",
+                                snapshot.eventsRead(), snapshot.viewsWritten(), snapshot.eventsPerSecond());
+                    }
+                }
+                if (!history.isEmpty()) {
+                    submit(history, pool, completed, sink);
+                }
+            }
+            while (sink.pending > 0) {
+                sink.write(completed.take());
+            }
+            sink.flush();
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void submit(List<EventRow> history, ForkJoinPool pool, BlockingQueue<Projected> completed, CopySink sink)
+            throws SQLException, InterruptedException {
+        sink.progress.eventsRead(history.size());
+        while (sink.pending >= MAX_IN_FLIGHT) {
+            sink.write(completed.take());
+        }
+        sink.pending++;
+        pool.execute(() -> completed.add(project(history, sink.progress)));
+        Projected ready;
+        while ((ready = completed.poll()) != null) {
+            sink.write(ready);
+        }
+    }
+
+    private Projected project(List<EventRow> history, RebuildProgress progress) {
+        final UUID aggregateId = history.get(0).aggregateId();
+        try {
+            final List<ProductEventV1Envelope<?>> events = new ArrayList<>(history.size());
+            for (EventRow row : history) {
+                events.add(eventMapper.toProductEventV1(row.toEntity(objectMapper)));
+            }
+            final ProjectionResult<ProductView> result = projector.projectAll(Optional.empty(), events);
+            progress.aggregateProjected();
+            if (result.isFailure()) {
+                return Projected.failed(aggregateId, result.getError());
+            }
+            if (result.isNoOp()) {
+                return Projected.failed(aggregateId, result.getNoopReason());
+            }
+            return new Projected(aggregateId,
+                    ProductViewCopyCodec.encode(viewMapper.toEntity(result.getProjection(), objectMapper), objectMapper),
+                    null);
+        } catch (RuntimeException e) {
+            return Projected.failed(aggregateId, e.getMessage());
+        }
+    }
+
+    private void dropShadow() {
+        try (Connection conn = dataSource.getConnection()) {
+            ShadowTable.drop(conn);
+        } catch (SQLException e) {
+            LOG.warn("Failed to drop product view shadow table", e);
+        }
+    }
+
+    /**
+     * Tampon d'écriture vers le COPY. Utilisé uniquement par le thread de lecture.
+     */
+    private static final class CopySink {
+        private final CopyIn copy;
+        private final RebuildProgress progress;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_BYTES);
+        private int pending;
+
+        CopySink(CopyIn copy, RebuildProgress progress) {
+            this.copy = copy;
+            this.progress = progress;
+        }
+
+        void write(Projected projected) throws SQLException {
+            pending--;
+            if (projected.row() == null) {
+                progress.aggregateFailed();
+                LOG.warnf("Product view rebuild skipped aggregate %s: %s", projected.aggregateId(), projected.error());
+                return;
+            }
+            buffer.writeBytes(projected.row());
+            progress.viewWritten();
+            if (buffer.size() >= COPY_BUFFER_BYTES) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (buffer.size() > 0) {
+                copy.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            }
+        }
+    }
+
+    /**
+     * Ligne brute du journal ; le payload reste textuel jusqu'à la projection.
+     */
+    private record EventRow(
+            UUID aggregateId,
+            long aggregateVersion,
+            String eventType,
+            int eventVersion,
+            Instant occurredAt,
+            String payload) {
+
+        static EventRow read(ResultSet rs) throws SQLException {
+            return new EventRow(
+                    rs.getObject(1, UUID.class),
+                    rs.getLong(2),
+                    rs.getString(3),
+                    rs.getInt(4),
+                    rs.getTimestamp(5).toInstant(),
+                    rs.getString(6));
+        }
+
+        EventLogEntity toEntity(ObjectMapper objectMapper) {
+            final EventLogEntity entity = new EventLogEntity();
+            entity.setAggregateType(PRODUCT_AGGREGATE_TYPE);
+            entity.setAggregateId(aggregateId);
+            entity.setAggregateVersion(aggregateVersion);
+            entity.setEventType(eventType);
+            entity.setEventVersion(eventVersion);
+            entity.setOccurredAt(occurredAt);
+            try {
+                entity.setPayload(objectMapper.readTree(payload));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable payload for " + aggregateId + "@" + aggregateVersion, e);
+            }
+            return entity;
+        }
+    }
+
+    /**
+     * Vue encodée d'un agrégat, ou raison de son rejet.
+     */
+    private record Projected(UUID aggregateId, byte[] row, String error) {
+
+        static Projected failed(UUID aggregateId, String error) {
+            return new Projected(aggregateId, null, error);
+        }
+    }
+}
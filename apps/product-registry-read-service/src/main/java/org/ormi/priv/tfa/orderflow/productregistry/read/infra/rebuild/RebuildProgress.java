@@ -0,0 +1,133 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Avancement d'une reconstruction de la vue produit.
+ *
+ * <p>Les compteurs sont mis à jour par le thread de chargement et lus par l'API
+ * d'administration : ils sont atomiques et la phase est volatile.</p>
+ */
+public class RebuildProgress {
+
+    /**
+     * Phases successives d'une reconstruction.
+     */
+    public enum Phase {
+        IDLE,
+        LOADING,
+        INDEXING,
+        SWAPPING,
+        DONE,
+        FAILED
+    }
+
+    private volatile Phase phase = Phase.IDLE;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private final AtomicLong eventsRead = new AtomicLong();
+    private final AtomicLong aggregatesProjected = new AtomicLong();
+    private final AtomicLong viewsWritten = new AtomicLong();
+    private final AtomicLong failedAggregates = new AtomicLong();
+    private final AtomicLong caughtUpAggregates = new AtomicLong();
+
+    void start() {
+        startedAt = Instant.now();
+        phase = Phase.LOADING;
+    }
+
+    void phase(Phase phase) {
+        this.phase = phase;
+    }
+
+    void done() {
+        finishedAt = Instant.now();
+        phase = Phase.DONE;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        phase = Phase.FAILED;
+    }
+
+    void eventsRead(long count) {
+        eventsRead.addAndGet(count);
+    }
+
+    void aggregateProjected() {
+        aggregatesProjected.incrementAndGet();
+    }
+
+    void viewWritten() {
+        viewsWritten.incrementAndGet();
+    }
+
+    void aggregateFailed() {
+        failedAggregates.incrementAndGet();
+    }
+
+    void caughtUp(long count) {
+        caughtUpAggregates.addAndGet(count);
+    }
+
+    public boolean isRunning() {
+        return phase == Phase.LOADING || phase == Phase.INDEXING || phase == Phase.SWAPPING;
+    }
+
+    /**
+     * Photographie cohérente de l'avancement, avec le débit calculé depuis le démarrage.
+     *
+     * @return l'état courant
+     */
+    public Snapshot snapshot() {
+        final Instant start = startedAt;
+        final Instant end = finishedAt != null ? finishedAt : Instant.now();
+        final long elapsedMs = start == null ? 0L : Duration.between(start, end).toMillis();
+        final long events = eventsRead.get();
+        return new Snapshot(
+                phase,
+                start,
+                finishedAt,
+                elapsedMs,
+                events,
+                aggregatesProjected.get(),
+                viewsWritten.get(),
+                failedAggregates.get(),
+                caughtUpAggregates.get(),
+                elapsedMs == 0 ? 0.0 : events * 1000.0 / elapsedMs,
+                error);
+    }
+
+    /**
+     * État d'une reconstruction à un instant donné.
+     *
+     * @param phase               la phase courante
+     * @param startedAt           le démarrage
+     * @param finishedAt          la fin, si terminée
+     * @param elapsedMs           la durée écoulée
+     * @param eventsRead          les événements lus depuis le journal
+     * @param aggregatesProjected les agrégats projetés
+     * @param viewsWritten        les vues chargées dans la table fantôme
+     * @param failedAggregates    les agrégats dont la projection a échoué
+     * @param caughtUpAggregates  les agrégats rattrapés au moment de la bascule
+     * @param eventsPerSecond     le débit moyen de lecture
+     * @param error               l'erreur, si la reconstruction a échoué
+     */
+    public record Snapshot(
+            Phase phase,
+            Instant startedAt,
+            Instant finishedAt,
+            long elapsedMs,
+            long eventsRead,
+            long aggregatesProjected,
+            long viewsWritten,
+            long failedAggregates,
+            long caughtUpAggregates,
+            double eventsPerSecond,
+            String error) {
+    }
+}
@@ -0,0 +1,226 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.JpaProductSummaryRepository;
+
+/**
+ * Opérations DDL sur la table fantôme {@code product_view_rebuild}.
+ *
+ * <p>La table fantôme est créée sans index pour accélérer le chargement par COPY ;
+ * la clé primaire et les index de la table vivante sont recopiés ensuite (suffixés
+ * {@value #SUFFIX}), puis renommés lors de la bascule.</p>
+ */
+final class ShadowTable {
+
+    static final String SCHEMA = "read_product_registry";
+    static final String LIVE_TABLE = "product_view";
+    static final String SUFFIX = "_rebuild";
+    static final String LIVE = SCHEMA + "." + LIVE_TABLE;
+    static final String SHADOW = LIVE + SUFFIX;
+
+    private static final String SQL_CONSTRAINTS = """
+            SELECT c.conname, pg_get_constraintdef(c.oid)
+            FROM pg_constraint c
+            WHERE c.conrelid = ?::regclass AND c.contype IN ('p', 'u')
+            """;
+    private static final String SQL_INDEXES = """
+            SELECT i.indexname, i.indexdef
+            FROM pg_indexes i
+            WHERE i.schemaname = ? AND i.tablename = ?
+            AND NOT EXISTS (
+                SELECT 1 FROM pg_constraint c
+                WHERE c.conindid = (quote_ident(i.schemaname) || '.' || quote_ident(i.indexname))::regclass
+            )
+            """;
+    private static final String SQL_STALE_AGGREGATES = """
+            SELECT l.id FROM %s l
+            LEFT JOIN %s s ON s.id = l.id
+            WHERE s.id IS NULL OR s._version < l._version
+            """.formatted(LIVE, SHADOW);
+    private static final String SQL_CARRY_FORWARD = """
+            INSERT INTO %s
+            SELECT l.* FROM %s l
+            WHERE NOT EXISTS (SELECT 1 FROM %s s WHERE s.id = l.id)
+            """.formatted(SHADOW, LIVE, SHADOW);
+
+    private ShadowTable() {
+    }
+
+    /**
+     * (Re)crée la table fantôme avec les colonnes et valeurs par défaut de la table vivante.
+     */
+    static void recreate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + SHADOW);
+            st.execute("CREATE TABLE " + SHADOW + " (LIKE " + LIVE
+                    + " INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE INCLUDING COMMENTS)");
+        }
+    }
+
+    /**
+     * Recopie contraintes et index de la table vivante sur la table fantôme, puis l'analyse.
+     *
+     * @return les renommages à appliquer après la bascule
+     */
+    static List<Rename> copyIndexes(Connection conn) throws SQLException {
+        final List<Rename> renames = new ArrayList<>();
+        final List<String> ddl = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_CONSTRAINTS)) {
+            ps.setString(1, LIVE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    final String name = rs.getString(1);
+                    ddl.add("ALTER TABLE " + SHADOW + " ADD CONSTRAINT " + name + SUFFIX + " " + rs.getString(2));
+                    renames.add(new Rename(true, name));
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INDEXES)) {
+            ps.setString(1, SCHEMA);
+            ps.setString(2, LIVE_TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    final String name = rs.getString(1);
+                    final String from = "INDEX " + name + " ON " + LIVE + " ";
+                    final String def = rs.getString(2);
+                    final int at = def.indexOf(from);
+                    if (at < 0) {
+                        throw new IllegalStateException("Unexpected index definition: " + def);
+                    }
+                    ddl.add(def.substring(0, at) + "INDEX " + name + SUFFIX + " ON " + SHADOW + " "
+                            + def.substring(at + from.length()));
+                    renames.add(new Rename(false, name));
+                }
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            for (String statement : ddl) {
+                st.execute(statement);
+            }
+            st.execute("ANALYZE " + SHADOW);
+        }
+        return renames;
+    }
+
+    /**
+     * Bloque les écritures sur la table vivante jusqu'à la fin de la transaction ;
+     * les lectures continuent.
+     */
+    static void lockLiveForWrites(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("LOCK TABLE " + LIVE + " IN EXCLUSIVE MODE");
+        }
+    }
+
+    /**
+     * Agrégats que la projection en ligne a fait avancer au-delà de la table fantôme
+     * pendant le chargement.
+     */
+    static List<UUID> staleAggregates(Connection conn) throws SQLException {
+        final List<UUID> ids = new ArrayList<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SQL_STALE_AGGREGATES)) {
+            while (rs.next()) {
+                ids.add(rs.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    static void delete(Connection conn, List<UUID> ids) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + SHADOW + " WHERE id = ANY(?)")) {
+            final Array array = conn.createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, array);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Recopie dans la table fantôme les vues vivantes qu'elle n'a pas : celles des agrégats
+     * dont la projection a échoué. Elles restent ainsi lisibles après la bascule, dans
+     * leur dernier état projeté ; à appeler sous {@link #lockLiveForWrites}.
+     *
+     * @return le nombre de vues recopiées
+     */
+    static int carryForwardMissing(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate(SQL_CARRY_FORWARD);
+        }
+    }
+
+    /**
+     * Remplace la table vivante par la table fantôme.
+     *
+     * <p>L'ancienne table est supprimée plutôt que renommée : une écriture en attente du
+     * verrou échoue alors (et sera rejouée par l'outbox) au lieu d'aboutir dans une table
+     * qui n'est plus lue.</p>
+     */
+    static void swap(Connection conn, List<Rename> renames) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE " + LIVE);
+            st.execute("ALTER TABLE " + SHADOW + " RENAME TO " + LIVE_TABLE);
+            for (Rename rename : renames) {
+                st.execute(rename.constraint()
+                        ? "ALTER TABLE " + LIVE + " RENAME CONSTRAINT " + rename.name() + SUFFIX + " TO " + rename.name()
+                        : "ALTER INDEX " + SCHEMA + "." + rename.name() + SUFFIX + " RENAME TO " + rename.name());
+            }
+        }
+    }
+
+    /**
+     * Réaligne les points de reprise de la projection sur les versions de la table
+     * vivante ; à appeler après la bascule, dans la même transaction.
+     */
+    static void resetCheckpoints(Connection conn, String projection) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM " + SCHEMA + ".projection_checkpoint WHERE projection = ?");
+                PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO " + SCHEMA + ".projection_checkpoint (projection, aggregate_id, last_sequence, updated_at)"
+                                + " SELECT ?, id, _version, now() FROM " + LIVE)) {
+            delete.setString(1, projection);
+            delete.executeUpdate();
+            insert.setString(1, projection);
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * Réaligne la table des résumés sur la table vivante ; à appeler après la bascule, dans
+     * la même transaction. Tous les produits reçoivent une nouvelle position de changement :
+     * les clients du flux des changements relisent l'ensemble reconstruit.
+     */
+    static void resetSummaries(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM " + SCHEMA + ".product_summary");
+            st.executeUpdate("INSERT INTO " + SCHEMA + ".product_summary"
+                    + " (id, _version, sku_id, name, status, catalog_count, updated_at)"
+                    + " SELECT id, _version, sku_id, name, status, catalog_count, now() FROM " + LIVE);
+            // Écarte l'écrivain des positions jusqu'à la validation
+            st.execute("SELECT pg_advisory_xact_lock(" + JpaProductSummaryRepository.CHANGE_LOCK_KEY + ")");
+            st.executeUpdate("DELETE FROM " + SCHEMA + ".product_change");
+            st.executeUpdate("INSERT INTO " + SCHEMA + ".product_change (id, change_position)"
+                    + " SELECT id, nextval('" + SCHEMA + ".product_change_seq')"
+                    + " FROM (SELECT id FROM " + LIVE + " ORDER BY sku_id) AS ordered");
+        }
+    }
+
+    static void drop(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + SHADOW);
+        }
+    }
+
+    /**
+     * Contrainte ou index à renommer après la bascule.
+     */
+    record Rename(boolean constraint, String name) {
+    }
+}
@@ -0,0 +1,36 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.web.dto;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductViewSerializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Corps JSON de {@code GET /products/{id}} : la vue mappée en {@code ProductViewDto} puis
+ * écrite avec l'{@link ObjectMapper} de l'application, comme le ferait la ressource.
+ */
+@ApplicationScoped
+public class JsonProductViewSerializer implements ProductViewSerializer {
+
+    private final ProductViewDtoMapper productViewDtoMapper;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public JsonProductViewSerializer(ProductViewDtoMapper productViewDtoMapper, ObjectMapper objectMapper) {
+        this.productViewDtoMapper = productViewDtoMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(ProductView view) {
+        try {
+            return objectMapper.writeValueAsBytes(productViewDtoMapper.toDto(view));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product view " + view.getId().value(), e);
+        }
+    }
+}
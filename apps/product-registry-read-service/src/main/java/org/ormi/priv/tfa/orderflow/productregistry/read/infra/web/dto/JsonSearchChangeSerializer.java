@@ -0,0 +1,43 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.web.dto;
+
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductSearchStreamElementDto;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.LiveSearchSubscriptions.SearchChange;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.SearchChangeSerializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Élément JSON de {@code GET /products/search/stream} : le changement mappé en
+ * {@code ProductSearchStreamElementDto} puis écrit avec l'{@link ObjectMapper} de
+ * l'application.
+ */
+@ApplicationScoped
+public class JsonSearchChangeSerializer implements SearchChangeSerializer {
+
+    private final ProductSummaryDtoMapper productSummaryDtoMapper;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public JsonSearchChangeSerializer(ProductSummaryDtoMapper productSummaryDtoMapper, ObjectMapper objectMapper) {
+        this.productSummaryDtoMapper = productSummaryDtoMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(SearchChange change) {
+        try {
+            return objectMapper.writeValueAsBytes(new ProductSearchStreamElementDto(
+                    change.change().name(),
+                    change.eventType(),
+                    productSummaryDtoMapper.toDto(change.product()),
+                    change.occurredAt()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    "Failed to serialize search change of product " + change.product().getId().value(), e);
+        }
+    }
+}
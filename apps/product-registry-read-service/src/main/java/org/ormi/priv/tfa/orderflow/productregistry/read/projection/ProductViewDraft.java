@@ -0,0 +1,130 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.projection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView.ProductViewCatalogRef;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView.ProductViewEvent;
+
+/**
+ * Brouillon mutable d'une vue produit, utilisé par {@link ProductViewProjector}.
+ *
+ * <p>Lors du rejeu d'un historique, le même brouillon est modifié événement après
+ * événement : l'historique est accumulé dans une seule liste et la {@link ProductView}
+ * immuable (et sa validation) n'est construite qu'une fois, à la fin.</p>
+ */
+public final class ProductViewDraft {
+    private ProductId id;
+    private Long version;
+    private SkuId skuId;
+    private String name;
+    private String description;
+    private ProductLifecycle status;
+    private List<ProductViewCatalogRef> catalogs;
+    private final ArrayList<ProductViewEvent> events;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    private ProductViewDraft() {
+        this.events = new ArrayList<>();
+    }
+
+    /**
+     * Crée un brouillon à partir de la vue actuelle, ou un brouillon vide.
+     *
+     * @param current la vue actuelle optionnelle
+     * @return le brouillon
+     */
+    public static ProductViewDraft of(Optional<ProductView> current) {
+        final ProductViewDraft draft = new ProductViewDraft();
+        current.ifPresent(view -> {
+            draft.id = view.getId();
+            draft.version = view.getVersion();
+            draft.skuId = view.getSkuId();
+            draft.name = view.getName();
+            draft.description = view.getDescription();
+            draft.status = view.getStatus();
+            draft.catalogs = view.getCatalogs();
+            draft.events.addAll(view.getEvents());
+            draft.createdAt = view.getCreatedAt();
+            draft.updatedAt = view.getUpdatedAt();
+        });
+        return draft;
+    }
+
+    boolean exists() {
+        return id != null;
+    }
+
+    boolean isActive() {
+        return status == ProductLifecycle.ACTIVE;
+    }
+
+    Long version() {
+        return version;
+    }
+
+    /**
+     * Réinitialise le brouillon pour un nouvel enregistrement du produit.
+     */
+    void register(ProductId id, SkuId skuId, String name, String description, Instant at) {
+        this.id = id;
+        this.skuId = skuId;
+        this.name = name;
+        this.description = description;
+        this.status = ProductLifecycle.ACTIVE;
+        this.catalogs = Collections.emptyList();
+        this.events.clear();
+        this.createdAt = at;
+        this.updatedAt = at;
+    }
+
+    void name(String name) {
+        this.name = name;
+    }
+
+    void description(String description) {
+        this.description = description;
+    }
+
+    void status(ProductLifecycle status) {
+        this.status = status;
+    }
+
+    /**
+     * Ajoute un événement à l'historique et avance la version.
+     *
+     * <p>Les événements sont appliqués par séquence croissante, l'historique reste donc trié.</p>
+     */
+    void append(ProductViewEvent event) {
+        this.events.add(event);
+        this.version = event.getSequence();
+    }
+
+    /**
+     * Construit la vue immuable.
+     *
+     * @return la vue produit validée
+     */
+    public ProductView build() {
+        return ProductView.Builder()
+                .id(id)
+                .version(version)
+                .skuId(skuId)
+                .name(name)
+                .description(description)
+                .status(status)
+                .catalogs(catalogs)
+                .events(List.copyOf(events))
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -1,12 +1,8 @@
 package org.ormi.priv.tfa.orderflow.productregistry.read.projection;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
-import org.ormi.priv.tfa.orderflow.cqrs.Projector;
+import org.ormi.priv.tfa.orderflow.cqrs.InPlaceProjector;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductDescriptionUpdatedEnvelope;
 import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductNameUpdatedEnvelope;
@@ -42,28 +38,43 @@ import jakarta.enterprise.context.ApplicationScoped;
  *   <li>Les événements obsolètes (avec une séquence inférieure à celle de la vue actuelle) sont ignorés</li>
  * </ul>
  * </p>
+ *
+ * <p>Les règles sont écrites une seule fois, sur un {@link ProductViewDraft} mutable :
+ * {@code project} construit une vue par événement, tandis que {@code projectAll}
+ * modifie le même brouillon pour tout l'historique et ne construit la vue qu'à la fin.</p>
  */
 @ApplicationScoped
-public class ProductViewProjector implements Projector<ProductView, ProductEventV1Envelope<?>> {
+public class ProductViewProjector implements InPlaceProjector<ProductView, ProductViewDraft, ProductEventV1Envelope<?>> {
+
+	@Override
+	public ProductViewDraft builderOf(Optional<ProductView> current) {
+		return ProductViewDraft.of(current);
+	}
+
+	@Override
+	public ProductView build(ProductViewDraft draft) {
+		return draft.build();
+	}
 
 	/**
-	 * Projette un événement produit sur une vue optionnelle.
+	 * Projette un événement produit sur un brouillon de vue.
 	 *
 	 * <p>Aiguille l'événement vers le gestionnaire approprié selon son type.
 	 * Si aucun gestionnaire n'est implémenté pour le type d'événement, retourne un résultat d'erreur.
+	 * Le brouillon n'est modifié que si la projection réussit.
 	 * </p>
 	 *
-	 * @param current l'état actuel optionnel de la vue produit
+	 * @param draft le brouillon de la vue produit
 	 * @param ev l'enveloppe d'événement produit à projeter
 	 * @return le résultat de la projection (succès, échec ou sans opération)
 	 */
 	@Override
-	public ProjectionResult<ProductView> project(Optional<ProductView> current, ProductEventV1Envelope<?> ev) {
+	public ProjectionResult<ProductViewDraft> projectInPlace(ProductViewDraft draft, ProductEventV1Envelope<?> ev) {
 		return switch (ev) {
-			case ProductRegisteredEnvelope pre -> handleProjection(current, pre);
-			case ProductRetiredEnvelope pre -> handleProjection(current, pre);
-			case ProductNameUpdatedEnvelope pre -> handleProjection(current, pre);
-			case ProductDescriptionUpdatedEnvelope pre -> handleProjection(current, pre);
+			case ProductRegisteredEnvelope pre -> handleProjection(draft, pre);
+			case ProductRetiredEnvelope pre -> handleProjection(draft, pre);
+			case ProductNameUpdatedEnvelope pre -> handleProjection(draft, pre);
+			case ProductDescriptionUpdatedEnvelope pre -> handleProjection(draft, pre);
 			default -> ProjectionResult.failed("Unimplemented event type");
 		};
 	}
@@ -75,33 +86,27 @@ public class ProductViewProjector implements Projector<ProductView, ProductEvent
 	 * Vérifie que le produit n'existe pas déjà ou n'est pas déjà actif.
 	 * </p>
 	 *
-	 * @param current l'état actuel optionnel de la vue produit
+	 * @param draft le brouillon de la vue produit
 	 * @param ev l'enveloppe d'événement d'enregistrement produit
 	 * @return le résultat de la projection avec la nouvelle vue créée, ou une erreur si le produit existe déjà
 	 */
-	private ProjectionResult<ProductView> handleProjection(Optional<ProductView> current,
+	private ProjectionResult<ProductViewDraft> handleProjection(ProductViewDraft draft,
 			ProductRegisteredEnvelope ev) {
-		if (current.isPresent() && current.get().getStatus() == ProductLifecycle.ACTIVE) {
+		if (draft.exists() && draft.isActive()) {
 			return ProjectionResult.failed("Product already exists and is active");
 		}
-		ProductView newView = ProductView.Builder()
-				.id(new ProductId(ev.event().productId().value()))
-				.version(ev.sequence())
-				.skuId(new SkuId(ev.event().payload().skuId()))
-				.name(ev.event().payload().name())
-				.description(ev.event().payload().description())
-				.status(ProductLifecycle.ACTIVE)
-				.events(List.of(
-						new ProductViewEvent(
-								ProductEventType.PRODUCT_REGISTERED,
-								ev.timestamp(),
-								ev.sequence(),
-								ev.event().payload())))
-				.catalogs(Collections.emptyList())
-				.createdAt(ev.timestamp())
-				.updatedAt(ev.timestamp())
-				.build();
-		return ProjectionResult.projected(newView);
+		draft.register(
+				new ProductId(ev.event().productId().value()),
+				new SkuId(ev.event().payload().skuId()),
+				ev.event().payload().name(),
+				ev.event().payload().description(),
+				ev.timestamp());
+		draft.append(new ProductViewEvent(
+				ProductEventType.PRODUCT_REGISTERED,
+				ev.timestamp(),
+				ev.sequence(),
+				ev.event().payload()));
+		return ProjectionResult.projected(draft);
 	}
 
 	/**
@@ -112,30 +117,25 @@ public class ProductViewProjector implements Projector<ProductView, ProductEvent
 	 * Ignore les événements obsolètes (séquence inférieure à celle de la vue actuelle).
 	 * </p>
 	 *
-	 * @param current l'état actuel optionnel de la vue produit
+	 * @param draft le brouillon de la vue produit
 	 * @param ev l'enveloppe d'événement de retraite produit
 	 * @return le résultat de la projection, une erreur si le produit n'existe pas ou est déjà retraité,
 	 *         ou sans opération si l'événement est obsolète
 	 */
-	private ProjectionResult<ProductView> handleProjection(Optional<ProductView> current, ProductRetiredEnvelope ev) {
-		if (current.isEmpty() || current.get().getStatus() != ProductLifecycle.ACTIVE) {
+	private ProjectionResult<ProductViewDraft> handleProjection(ProductViewDraft draft, ProductRetiredEnvelope ev) {
+		if (!draft.exists() || !draft.isActive()) {
 			return ProjectionResult.failed("Already retired or never existed");
 		}
-		if (ev.sequence() <= current.get().getVersion()) {
+		if (ev.sequence() <= draft.version()) {
 			return ProjectionResult.noOp("Stale retirement ignored");
 		}
-		ProductView newView = ProductView.Builder()
-				.with(current.get())
-				.version(ev.sequence())
-				.status(ProductLifecycle.RETIRED)
-				.events(mergeEvents(current.get().getEvents(),
-						new ProductViewEvent(
-							ProductEventType.PRODUCT_RETIRED,
-							ev.timestamp(),
-							ev.sequence(),
-							ev.event().payload())))
-				.build();
-		return ProjectionResult.projected(newView);
+		draft.status(ProductLifecycle.RETIRED);
+		draft.append(new ProductViewEvent(
+				ProductEventType.PRODUCT_RETIRED,
+				ev.timestamp(),
+				ev.sequence(),
+				ev.event().payload()));
+		return ProjectionResult.projected(draft);
 	}
 
 	/**
@@ -146,31 +146,26 @@ public class ProductViewProjector implements Projector<ProductView, ProductEvent
 	 * Ignore les événements obsolètes (séquence inférieure à celle de la vue actuelle).
 	 * </p>
 	 *
-	 * @param current l'état actuel optionnel de la vue produit
+	 * @param draft le brouillon de la vue produit
 	 * @param ev l'enveloppe d'événement de mise à jour du nom
 	 * @return le résultat de la projection, une erreur si le produit n'existe pas ou est retraité,
 	 *         ou sans opération si l'événement est obsolète
 	 */
-	private ProjectionResult<ProductView> handleProjection(Optional<ProductView> current,
+	private ProjectionResult<ProductViewDraft> handleProjection(ProductViewDraft draft,
 			ProductNameUpdatedEnvelope ev) {
-		if (current.isEmpty() || current.get().getStatus() != ProductLifecycle.ACTIVE) {
+		if (!draft.exists() || !draft.isActive()) {
 			return ProjectionResult.failed("Cannot update name of non-existent or retired product");
 		}
-		if (ev.sequence() <= current.get().getVersion()) {
+		if (ev.sequence() <= draft.version()) {
 			return ProjectionResult.noOp("Stale name update ignored");
 		}
-		ProductView newView = ProductView.Builder()
-				.with(current.get())
-				.version(ev.sequence())
-				.name(ev.event().payload().newName())
-				.events(mergeEvents(current.get().getEvents(),
-						new ProductViewEvent(
-							ProductEventType.PRODUCT_NAME_UPDATED,
-							ev.timestamp(),
-							ev.sequence(),
-							ev.event().payload())))
-				.build();
-		return ProjectionResult.projected(newView);
+		draft.name(ev.event().payload().newName());
+		draft.append(new ProductViewEvent(
+				ProductEventType.PRODUCT_NAME_UPDATED,
+				ev.timestamp(),
+				ev.sequence(),
+				ev.event().payload()));
+		return ProjectionResult.projected(draft);
 	}
 
 	/**
@@ -181,49 +176,25 @@ public class ProductViewProjector implements Projector<ProductView, ProductEvent
 	 * Ignore les événements obsolètes (séquence inférieure à celle de la vue actuelle).
 	 * </p>
 	 *
-	 * @param current l'état actuel optionnel de la vue produit
+	 * @param draft le brouillon de la vue produit
 	 * @param ev l'enveloppe d'événement de mise à jour de la description
 	 * @return le résultat de la projection, une erreur si le produit n'existe pas ou est retraité,
 	 *         ou sans opération si l'événement est obsolète
 	 */
-	private ProjectionResult<ProductView> handleProjection(Optional<ProductView> current,
+	private ProjectionResult<ProductViewDraft> handleProjection(ProductViewDraft draft,
 			ProductDescriptionUpdatedEnvelope ev) {
-		if (current.isEmpty() || current.get().getStatus() != ProductLifecycle.ACTIVE) {
+		if (!draft.exists() || !draft.isActive()) {
 			return ProjectionResult.failed("Cannot update description of non-existent or retired product");
 		}
-		if (ev.sequence() <= current.get().getVersion()) {
+		if (ev.sequence() <= draft.version()) {
 			return ProjectionResult.noOp("Stale description update ignored");
 		}
-		ProductView newView = ProductView.Builder()
-				.with(current.get())
-				.version(ev.sequence())
-				.description(ev.event().payload().newDescription())
-				.events(mergeEvents(current.get().getEvents(),
-						new ProductViewEvent(
-							ProductEventType.PRODUCT_DESCRIPTION_UPDATED,
-							ev.timestamp(),
-							ev.sequence(),
-							ev.event().payload())))
-				.build();
-		return ProjectionResult.projected(newView);
-	}
-
-	/**
-	 * Fusionne les événements existants avec un nouvel événement, triés par séquence.
-	 *
-	 * <p>Combine tous les événements dans une liste unique et les trie selon leur numéro de séquence
-	 * pour garantir l'ordre temporel correct des événements.
-	 * </p>
-	 *
-	 * @param existingEvents la liste des événements existants
-	 * @param newEvent le nouvel événement à ajouter
-	 * @return une liste triée de tous les événements (existants et nouveau)
-	 */
-	private static List<ProductViewEvent> mergeEvents(List<ProductViewEvent> existingEvents,
-			ProductViewEvent newEvent) {
-		return Stream.concat(existingEvents.stream(),
-				Stream.of(newEvent))
-				.sorted(Comparator.comparingLong(ProductViewEvent::getSequence))
-				.toList();
+		draft.description(ev.event().payload().newDescription());
+		draft.append(new ProductViewEvent(
+				ProductEventType.PRODUCT_DESCRIPTION_UPDATED,
+				ev.timestamp(),
+				ev.sequence(),
+				ev.event().payload()));
+		return ProjectionResult.projected(draft);
 	}
 }
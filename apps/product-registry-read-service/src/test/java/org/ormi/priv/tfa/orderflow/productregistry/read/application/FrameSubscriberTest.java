@@ -0,0 +1,188 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.Frame;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.core.buffer.Buffer;
+
+class FrameSubscriberTest {
+
+    private static final String PRODUCT_ID = "product";
+
+    private final AtomicReference<FrameSubscriber> subscriber = new AtomicReference<>();
+
+    @Test
+    void resumeDropsLiveEventsAlreadyReceivedByTheClient() {
+        final AssertSubscriber<Frame> client = resumedAfter(2);
+        subscriber.get().offer(frame(2));
+        subscriber.get().offer(frame(3));
+        subscriber.get().resume(frames(3, 4), false);
+
+        assertEquals(List.of(3L, 4L), sequences(client));
+    }
+
+    @Test
+    void liveEventAfterResumeIsNotSentTwice() {
+        final AssertSubscriber<Frame> client = resumedAfter(0);
+        subscriber.get().resume(frames(1, 3), false);
+        // Diffusé en direct après le rejeu qui le contenait déjà
+        subscriber.get().offer(frame(3));
+        subscriber.get().offer(frame(4));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences(client));
+    }
+
+    @Test
+    void conflatedSubscriberReceivesReplayBeforeLive() {
+        final AtomicReference<FrameSubscriber> ref = subscriber;
+        final AssertSubscriber<Frame> client = Multi.createFrom().<Frame>emitter(emitter -> {
+            ref.set(new FrameSubscriber(emitter, OverflowPolicy.CONFLATE_BY_PRODUCT, 0));
+            emitter.onRequest(requested -> ref.get().drain());
+        }).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        subscriber.get().offer(frame(2));
+        subscriber.get().resume(frames(1, 2), false);
+
+        assertEquals(List.of(1L, 2L), sequences(client));
+    }
+
+    @Test
+    void truncatedReplayCompletesAfterReplayedEvents() {
+        final AssertSubscriber<Frame> client = resumedAfter(0);
+        subscriber.get().offer(frame(500));
+        subscriber.get().resume(frames(1, 2), true);
+        subscriber.get().offer(frame(501));
+
+        client.assertCompleted();
+        assertEquals(List.of(1L, 2L), sequences(client));
+    }
+
+    @Test
+    void dropOldestEvictsTheOldestPendingEvents() {
+        final AssertSubscriber<Frame> client = stalled(OverflowPolicy.DROP_OLDEST);
+        frames(1, ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE + 2).forEach(subscriber.get()::offer);
+
+        client.request(Long.MAX_VALUE);
+
+        assertEquals(LongStream.rangeClosed(3, ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE + 2).boxed().toList(),
+                sequences(client));
+        client.assertNotTerminated();
+    }
+
+    @Test
+    void conflateKeepsOnlyTheLatestEventOfEachProduct() {
+        final AssertSubscriber<Frame> client = stalled(OverflowPolicy.CONFLATE_BY_PRODUCT);
+        subscriber.get().offer(frame("a", 1));
+        subscriber.get().offer(frame("b", 1));
+        subscriber.get().offer(frame("a", 2));
+        subscriber.get().offer(frame("a", 3));
+
+        client.request(Long.MAX_VALUE);
+
+        // Dans l'ordre de dernière mise à jour
+        assertEquals(List.of("b:1", "a:3"), productSequences(client));
+    }
+
+    @Test
+    void conflateEvictsTheLeastRecentlyUpdatedProductWhenFull() {
+        final AssertSubscriber<Frame> client = stalled(OverflowPolicy.CONFLATE_BY_PRODUCT);
+        for (int i = 0; i <= ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE; i++) {
+            subscriber.get().offer(frame("p" + i, 1));
+        }
+
+        client.request(Long.MAX_VALUE);
+
+        final List<String> received = productSequences(client);
+        assertEquals(ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE, received.size());
+        assertEquals("p1:1", received.get(0));
+        assertEquals("p" + ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE + ":1", received.get(received.size() - 1));
+    }
+
+    @Test
+    void disconnectFailsTheStreamOnceTheBufferIsFull() {
+        final AssertSubscriber<Frame> client = stalled(OverflowPolicy.DISCONNECT);
+        frames(1, ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE).forEach(subscriber.get()::offer);
+
+        client.assertNotTerminated();
+
+        subscriber.get().offer(frame(ProductEventBroadcaster.SUBSCRIBER_BUFFER_SIZE + 1));
+
+        client.assertFailedWith(IllegalStateException.class, "Subscriber too slow");
+        assertEquals(List.of(), sequences(client));
+    }
+
+    @RepeatedTest(50)
+    void resumeRacingLivePublishEmitsEachEventOnceInOrder() throws InterruptedException {
+        final int published = 200;
+        final AssertSubscriber<Frame> client = resumedAfter(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread live = new Thread(() -> {
+            await(start);
+            LongStream.rangeClosed(1, published).forEach(sequence -> subscriber.get().offer(frame(sequence)));
+        });
+        live.start();
+        start.countDown();
+        // Le rejeu couvre une partie quelconque de ce que le direct diffuse en parallèle
+        subscriber.get().resume(frames(1, published / 2), false);
+        live.join();
+
+        assertEquals(LongStream.rangeClosed(1, published).boxed().toList(), sequences(client));
+    }
+
+    private AssertSubscriber<Frame> resumedAfter(long lastSequence) {
+        final AtomicReference<FrameSubscriber> ref = subscriber;
+        return Multi.createFrom().<Frame>emitter(emitter -> {
+            ref.set(new FrameSubscriber(emitter, OverflowPolicy.DROP_OLDEST, lastSequence));
+            emitter.onRequest(requested -> ref.get().drain());
+        }).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+    }
+
+    /**
+     * Client qui ne demande rien : les événements s'accumulent dans le tampon de l'abonné.
+     */
+    private AssertSubscriber<Frame> stalled(OverflowPolicy policy) {
+        final AtomicReference<FrameSubscriber> ref = subscriber;
+        return Multi.createFrom().<Frame>emitter(emitter -> {
+            ref.set(new FrameSubscriber(emitter, policy));
+            emitter.onRequest(requested -> ref.get().drain());
+        }).subscribe().withSubscriber(AssertSubscriber.create(0));
+    }
+
+    private static List<String> productSequences(AssertSubscriber<Frame> client) {
+        return client.getItems().stream().map(frame -> frame.productId() + ":" + frame.sequence()).toList();
+    }
+
+    private static List<Long> sequences(AssertSubscriber<Frame> client) {
+        return client.getItems().stream().map(Frame::sequence).toList();
+    }
+
+    private static List<Frame> frames(long from, long to) {
+        return LongStream.rangeClosed(from, to).mapToObj(FrameSubscriberTest::frame).toList();
+    }
+
+    private static Frame frame(long sequence) {
+        return frame(PRODUCT_ID, sequence);
+    }
+
+    private static Frame frame(String productId, long sequence) {
+        return new Frame(productId, sequence, Buffer.buffer("{\"sequence\":" + sequence + "}"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.LiveSearchSubscriptions.Change;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.LiveSearchSubscriptions.StandingQuery;
+
+class LiveSearchSubscriptionsTest {
+
+    private static final List<String> SKUS = List.of(
+            "AAA-00000", "ABC-12345", "ABC-99999", "ABD-00000", "XAB-01234", "ZAB-12000", "BCA-12345", "ZZZ-99999");
+
+    private static final SkuId ABC = new SkuId("ABC-12345");
+    private static final SkuId ABD = new SkuId("ABD-00000");
+    private static final SkuId XYZ = new SkuId("XYZ-00000");
+
+    @Test
+    void percentMatchesAnyRunOfCharacters() {
+        assertMatches("A%5", "ABC-12345", "BCA-12345");
+        assertMatches("%", SKUS.toArray(String[]::new));
+        assertMatches("C-%9", "ABC-99999");
+    }
+
+    @Test
+    void underscoreMatchesExactlyOneCharacter() {
+        assertMatches("AB_-0", "ABD-00000");
+        assertMatches("_AB", "XAB-01234", "ZAB-12000");
+        assertMatches("A_C-1", "ABC-12345");
+    }
+
+    @Test
+    void patternIsSearchedAsASubstring() {
+        // Comme LIKE '%' || motif || '%'
+        assertMatches("3_5", "ABC-12345", "BCA-12345");
+        assertMatches("0__3", "XAB-01234");
+    }
+
+    @Test
+    void escapedWildcardsAreLiteral() {
+        // Un SKU ne contient ni '%' ni '_'
+        assertMatches("\\_");
+        assertMatches("AB\\%");
+        assertMatches("\\A\\B_", "ABC-12345", "ABC-99999", "ABD-00000", "XAB-01234", "ZAB-12000");
+    }
+
+    @Test
+    void regexMetacharactersAreLiteral() {
+        assertMatches("A.C%");
+        assertMatches("[A]%");
+        assertMatches("A*%");
+    }
+
+    @Test
+    void newProductEntersWhenItMatches() {
+        final StandingQuery query = new StandingQuery(LiveSearchSubscriptions.matcher("AB_"));
+
+        assertEquals(Optional.of(Change.ENTERED), query.evaluate(Optional.empty(), ABC));
+        assertEquals(Optional.empty(), query.evaluate(Optional.empty(), XYZ));
+    }
+
+    @Test
+    void skuChangeIntoOrOutOfTheResultEntersOrExits() {
+        final StandingQuery query = new StandingQuery(LiveSearchSubscriptions.matcher("A_C"));
+
+        assertEquals(Optional.of(Change.ENTERED), query.evaluate(Optional.of(ABD), ABC));
+        assertEquals(Optional.of(Change.EXITED), query.evaluate(Optional.of(ABC), ABD));
+    }
+
+    @Test
+    void productStayingInOrOutOfTheResult() {
+        final StandingQuery query = new StandingQuery(LiveSearchSubscriptions.matcher("AB%"));
+
+        assertEquals(Optional.of(Change.UPDATED), query.evaluate(Optional.of(ABC), ABC));
+        assertEquals(Optional.of(Change.UPDATED), query.evaluate(Optional.of(ABC), ABD));
+        assertEquals(Optional.empty(), query.evaluate(Optional.of(XYZ), XYZ));
+    }
+
+    @Test
+    void patternWithoutWildcardsGivesTheSameTransitions() {
+        final StandingQuery query = new StandingQuery(LiveSearchSubscriptions.matcher("ABC"));
+
+        assertEquals(Optional.of(Change.ENTERED), query.evaluate(Optional.of(ABD), ABC));
+        assertEquals(Optional.of(Change.EXITED), query.evaluate(Optional.of(ABC), ABD));
+        assertEquals(Optional.of(Change.UPDATED), query.evaluate(Optional.of(ABC), ABC));
+    }
+
+    private static void assertMatches(String pattern, String... expected) {
+        final Predicate<SkuId> matcher = LiveSearchSubscriptions.matcher(pattern);
+        assertEquals(List.of(expected), SKUS.stream().filter(sku -> matcher.test(new SkuId(sku))).toList(),
+                "'" + pattern + "'");
+    }
+}
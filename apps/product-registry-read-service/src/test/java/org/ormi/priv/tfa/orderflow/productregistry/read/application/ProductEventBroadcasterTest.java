@@ -0,0 +1,101 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductStreamElementDto;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.Frame;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.OverflowPolicy;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ProductEventBroadcaster.ProductEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+
+class ProductEventBroadcasterTest {
+
+    private static final String PRODUCT_ID = "product";
+
+    private final ProductEventBroadcaster broadcaster = new ProductEventBroadcaster(new CommittedAfterCommit(),
+            new ObjectMapper(), new SimpleMeterRegistry(), OverflowPolicy.DROP_OLDEST);
+
+    @BeforeEach
+    void start() {
+        broadcaster.onStart(null);
+    }
+
+    @AfterEach
+    void stop() {
+        broadcaster.onStop(null);
+    }
+
+    @Test
+    void resumeWithinAContiguousTailDoesNotReadHistory() {
+        publish(1, 2, 3);
+
+        final AssertSubscriber<Frame> client = resume(1, (productId, sequence, limit) -> fail("history read"));
+
+        assertEquals(List.of(2L, 3L), sequences(client.awaitItems(2)));
+    }
+
+    @Test
+    void resumeAcrossAGapInTheTailReadsHistory() {
+        // L'événement 4 a été perdu avant la diffusion
+        publish(1, 2, 3, 5);
+
+        final AssertSubscriber<Frame> client = resume(2,
+                (productId, sequence, limit) -> events(sequence + 1, 5));
+
+        assertEquals(List.of(3L, 4L, 5L), sequences(client.awaitItems(3)));
+    }
+
+    private void publish(long... sequences) {
+        // Un abonné en direct : chaque événement est passé par la fin de journal une fois reçu
+        final AssertSubscriber<Frame> live = broadcaster
+                .streamByProductIds(List.of(PRODUCT_ID), OverflowPolicy.DROP_OLDEST)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        for (long sequence : sequences) {
+            broadcaster.broadcastOnCommit(element(), sequence);
+        }
+        live.awaitItems(sequences.length);
+    }
+
+    private AssertSubscriber<Frame> resume(long lastSequence, ProductEventBroadcaster.EventHistory history) {
+        return broadcaster.resumeByProductId(PRODUCT_ID, lastSequence, OverflowPolicy.DROP_OLDEST, history)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+    }
+
+    private static List<Long> sequences(AssertSubscriber<Frame> client) {
+        return client.getItems().stream().map(Frame::sequence).toList();
+    }
+
+    private static List<ProductEvent> events(long from, long to) {
+        return LongStream.rangeClosed(from, to).mapToObj(sequence -> new ProductEvent(element(), sequence)).toList();
+    }
+
+    private static ProductStreamElementDto element() {
+        return new ProductStreamElementDto("ProductUpdated", PRODUCT_ID, null);
+    }
+
+    /**
+     * Transaction toujours validée : les actions s'exécutent aussitôt.
+     */
+    private static final class CommittedAfterCommit extends AfterCommit {
+
+        CommittedAfterCommit() {
+            super(null);
+        }
+
+        @Override
+        public void register(Runnable onCommit, Runnable onRollback) {
+            onCommit.run();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+
+class ProductVersionWaitersTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    private final ProductVersionWaiters waiters = new ProductVersionWaiters(new CommittedAfterCommit(), TIMEOUT, 2);
+    private final ProductId productId = ProductId.newId();
+
+    @Test
+    void waiterIsReleasedByTheExpectedVersionOrALaterOne() throws Exception {
+        final CompletableFuture<Optional<SerializedProductView>> exact = waiters.await(productId, 3);
+        final CompletableFuture<Optional<SerializedProductView>> earlier = waiters.await(productId, 2);
+        final SerializedProductView projected = serialized(productId, 3);
+
+        waiters.onProjected(projected);
+
+        assertSame(projected, exact.get(1, TimeUnit.SECONDS).orElseThrow());
+        assertSame(projected, earlier.get(1, TimeUnit.SECONDS).orElseThrow());
+    }
+
+    @Test
+    void waiterIsNotReleasedByAnEarlierVersionOrAnotherProduct() {
+        final CompletableFuture<Optional<SerializedProductView>> waiting = waiters.await(productId, 3);
+
+        waiters.onProjected(serialized(productId, 2));
+        waiters.onProjected(serialized(ProductId.newId(), 3));
+
+        assertFalse(waiting.isDone());
+    }
+
+    @Test
+    void waiterCompletesEmptyOnTimeout() throws Exception {
+        final long start = System.nanoTime();
+
+        final Optional<SerializedProductView> view = waiters.await(productId, 3).get(5, TimeUnit.SECONDS);
+
+        assertTrue(view.isEmpty());
+        assertTrue(System.nanoTime() - start >= TIMEOUT.toNanos());
+        // Une projection tardive ne change plus rien
+        waiters.onProjected(serialized(productId, 3));
+    }
+
+    @Test
+    void waitersBeyondTheLimitCompleteEmptyAtOnce() throws Exception {
+        waiters.await(productId, 3);
+        waiters.await(productId, 4);
+
+        // Refusée sans attendre l'expiration des deux autres
+        final CompletableFuture<Optional<SerializedProductView>> refused = waiters.await(productId, 5);
+
+        assertTrue(refused.isDone());
+        assertEquals(Optional.empty(), refused.get());
+    }
+
+    @Test
+    void expiredWaitersFreeTheirSlot() throws Exception {
+        waiters.await(productId, 3).get(5, TimeUnit.SECONDS);
+        waiters.await(productId, 4).get(5, TimeUnit.SECONDS);
+
+        // Le retrait suit l'expiration sur le thread qui l'a déclenchée : il peut tarder un peu
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        CompletableFuture<Optional<SerializedProductView>> accepted = waiters.await(productId, 5);
+        while (accepted.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            accepted = waiters.await(productId, 5);
+        }
+
+        assertFalse(accepted.isDone());
+    }
+
+    private static SerializedProductView serialized(ProductId productId, long version) {
+        final Instant now = Instant.now();
+        final ProductView view = ProductView.Builder()
+                .id(productId)
+                .version(version)
+                .skuId(new SkuId("ABC-12345"))
+                .name("Produit")
+                .description("")
+                .status(ProductLifecycle.ACTIVE)
+                .catalogs(List.of())
+                .events(List.of())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return new SerializedProductView(view, new byte[0]);
+    }
+
+    /**
+     * Transaction toujours validée : les actions s'exécutent aussitôt.
+     */
+    private static final class CommittedAfterCommit extends AfterCommit {
+
+        CommittedAfterCommit() {
+            super(null);
+        }
+
+        @Override
+        public void register(Runnable onCommit, Runnable onRollback) {
+            onCommit.run();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.productregistry.read.application.ReadProductService.SearchPaginatedResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SearchResultCacheTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(200);
+    private static final SearchResultCache.Key KEY = new SearchResultCache.Key(null, "ABC", Optional.empty(), 1,
+            20, true);
+
+    private final SearchResultCache cache = cache(WINDOW);
+    private final SearchPaginatedResult first = result(1);
+    private final SearchPaginatedResult second = result(2);
+
+    @AfterEach
+    void stop() {
+        cache.onStop(null);
+    }
+
+    @Test
+    void freshPageIsServedWithoutRecomputing() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get(KEY, () -> {
+            loads.incrementAndGet();
+            return first;
+        });
+
+        assertSame(first, cache.get(KEY, () -> {
+            loads.incrementAndGet();
+            return second;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void stalePageIsServedWhileRefreshedInBackground() throws Exception {
+        cache.get(KEY, () -> first);
+        cache.advanceOnCommit();
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger loadsOnCaller = new AtomicInteger();
+
+        assertSame(first, cache.get(KEY, () -> {
+            if (Thread.currentThread() == caller) {
+                loadsOnCaller.incrementAndGet();
+            }
+            refreshed.countDown();
+            return second;
+        }));
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, loadsOnCaller.get());
+        assertSame(second, awaitPage(second));
+    }
+
+    @Test
+    void windowStartsWhenThePageIsFirstSeenStaleNotWhenItWasComputed() throws Exception {
+        cache.get(KEY, () -> first);
+        // Page calculée bien avant l'écriture suivante
+        Thread.sleep(WINDOW.toMillis() * 2);
+        cache.advanceOnCommit();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            assertSame(first, cache.get(KEY, () -> {
+                await(release);
+                return second;
+            }));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void expiredStalePageIsRecomputedInTheRequest() throws Exception {
+        cache.get(KEY, () -> first);
+        cache.advanceOnCommit();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // Recalcul en arrière-plan bloqué : la page reste périmée
+            assertSame(first, cache.get(KEY, () -> {
+                await(release);
+                return result(3);
+            }));
+            Thread.sleep(WINDOW.toMillis() * 2);
+
+            assertSame(second, cache.get(KEY, () -> second));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void zeroWindowNeverServesAStalePage() {
+        final SearchResultCache strict = cache(Duration.ZERO);
+        try {
+            strict.get(KEY, () -> first);
+            strict.advanceOnCommit();
+
+            assertSame(second, strict.get(KEY, () -> second));
+        } finally {
+            strict.onStop(null);
+        }
+    }
+
+    private SearchPaginatedResult awaitPage(SearchPaginatedResult expected) throws InterruptedException {
+        // Le recalcul publie la page juste après avoir appelé le chargeur
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        SearchPaginatedResult page = cache.get(KEY, () -> expected);
+        while (page != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            page = cache.get(KEY, () -> expected);
+        }
+        return page;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SearchResultCache cache(Duration window) {
+        return new SearchResultCache(new CommittedAfterCommit(), new SimpleMeterRegistry(), window);
+    }
+
+    private static SearchPaginatedResult result(long total) {
+        return new SearchPaginatedResult(List.of(), OptionalLong.of(total), Optional.empty());
+    }
+
+    /**
+     * Transaction toujours validée : les actions s'exécutent aussitôt.
+     */
+    private static final class CommittedAfterCommit extends AfterCommit {
+
+        CommittedAfterCommit() {
+            super(null);
+        }
+
+        @Override
+        public void register(Runnable onCommit, Runnable onRollback) {
+            onCommit.run();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository;
+import org.ormi.priv.tfa.orderflow.kernel.product.persistence.ProductSummaryRepository.SkuOwner;
+
+class SkuIndexTest {
+
+    private final ProductSummaryRepository repository = mock(ProductSummaryRepository.class);
+    private final SkuIndex index = new SkuIndex(repository, new CommittedAfterCommit());
+
+    @Test
+    void searchIsNotAnsweredBeforeTheFirstLoad() {
+        assertTrue(index.search("ABC", Optional.empty(), 0, 10, true).isEmpty());
+    }
+
+    @Test
+    void prefixSearchPagesByOffsetAndCursor() {
+        loaded("ABC-00001", "ABC-00002", "ABC-00003", "ABD-00001");
+
+        final SkuIndex.Page first = index.search("ABC", Optional.empty(), 0, 2, true).orElseThrow();
+        assertEquals(skus("ABC-00001", "ABC-00002"), first.skuIds());
+        assertEquals(OptionalLong.of(3), first.total());
+        assertTrue(first.hasMore());
+
+        final SkuIndex.Page next = index.search("ABC", Optional.of(new SkuId("ABC-00002")), 0, 2, true)
+                .orElseThrow();
+        assertEquals(skus("ABC-00003"), next.skuIds());
+        assertEquals(OptionalLong.of(3), next.total());
+        assertFalse(next.hasMore());
+    }
+
+    @Test
+    void infixSearchCountsMatchesBeforeTheCursor() {
+        loaded("ABC-12345", "XYZ-00012", "XYZ-11111", "ZZZ-12000");
+
+        final SkuIndex.Page page = index.search("12", Optional.of(new SkuId("ABC-12345")), 0, 10, true)
+                .orElseThrow();
+
+        assertEquals(skus("XYZ-00012", "ZZZ-12000"), page.skuIds());
+        assertEquals(OptionalLong.of(3), page.total());
+    }
+
+    @Test
+    void productsSharingASkuKeepTheirOwnEntries() {
+        loaded();
+        final ProductId first = ProductId.newId();
+        final ProductId second = ProductId.newId();
+        index.onProjected(first, Optional.empty(), new SkuId("ABC-00001"));
+        index.onProjected(second, Optional.empty(), new SkuId("ABC-00001"));
+
+        assertEquals(OptionalLong.of(2), total("ABC-00001"));
+
+        // Le premier produit change de SKU : le second garde le sien
+        index.onProjected(first, Optional.of(new SkuId("ABC-00001")), new SkuId("ABC-00002"));
+
+        assertEquals(OptionalLong.of(1), total("ABC-00001"));
+        assertEquals(OptionalLong.of(1), total("ABC-00002"));
+    }
+
+    @Test
+    void projectionDuringReloadIsNotCountedTwice() {
+        final ProductId product = ProductId.newId();
+        final SkuId sku = new SkuId("ABC-00001");
+        // Projection validée pendant la lecture, et déjà visible dans le résultat lu
+        when(repository.findAllSkuOwners()).thenAnswer(invocation -> {
+            index.onProjected(product, Optional.empty(), sku);
+            return List.of(new SkuOwner(product, sku));
+        });
+
+        index.reload();
+
+        assertEquals(OptionalLong.of(1), total("ABC"));
+    }
+
+    private void loaded(String... skus) {
+        when(repository.findAllSkuOwners()).thenReturn(skus(skus).stream()
+                .map(sku -> new SkuOwner(ProductId.newId(), sku))
+                .toList());
+        index.reload();
+    }
+
+    private OptionalLong total(String pattern) {
+        return index.search(pattern, Optional.empty(), 0, 10, true).orElseThrow().total();
+    }
+
+    private static List<SkuId> skus(String... skus) {
+        return List.of(skus).stream().map(SkuId::new).toList();
+    }
+
+    /**
+     * Transaction toujours validée : les actions s'exécutent aussitôt.
+     */
+    private static final class CommittedAfterCommit extends AfterCommit {
+
+        CommittedAfterCommit() {
+            super(null);
+        }
+
+        @Override
+        public void register(Runnable onCommit, Runnable onRollback) {
+            onCommit.run();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+
+class SkuPatternTest {
+
+    private static final List<String> SKUS = List.of(
+            "AAA-00000", "ABC-12345", "ABC-99999", "ABD-00000", "XAB-01234", "ZAB-12000", "BCA-12345", "ZZZ-99999");
+
+    @Test
+    void patternThatCanOnlyStartTheSkuIsAPrefixRange() {
+        final SkuPattern pattern = SkuPattern.compile("ABC").orElseThrow();
+
+        assertTrue(pattern.isRange());
+        assertEquals(new SkuId("ABC-00000").packed(), pattern.rangeFrom());
+        assertEquals(new SkuId("ABC-99999").packed() + 1, pattern.rangeTo());
+        assertMatchesLikeSubstring("ABC");
+    }
+
+    @Test
+    void prefixReachingIntoTheDigitsIsARange() {
+        final SkuPattern pattern = SkuPattern.compile("ABC-12").orElseThrow();
+
+        assertTrue(pattern.isRange());
+        assertEquals(new SkuId("ABC-12000").packed(), pattern.rangeFrom());
+        assertEquals(new SkuId("ABC-12999").packed() + 1, pattern.rangeTo());
+        assertMatchesLikeSubstring("ABC-12");
+    }
+
+    @Test
+    void lettersThatFitSeveralPositionsAreProbed() {
+        // "AB" peut commencer en position 0 ou 1
+        final SkuPattern pattern = SkuPattern.compile("AB").orElseThrow();
+
+        assertFalse(pattern.isRange());
+        assertMatchesLikeSubstring("AB");
+    }
+
+    @Test
+    void digitsAreProbedAtEveryDigitPosition() {
+        final SkuPattern pattern = SkuPattern.compile("12").orElseThrow();
+
+        assertFalse(pattern.isRange());
+        assertMatchesLikeSubstring("12");
+        assertMatchesLikeSubstring("345");
+        assertMatchesLikeSubstring("0");
+    }
+
+    @Test
+    void hyphenAnchorsThePatternAcrossLettersAndDigits() {
+        assertMatchesLikeSubstring("-");
+        assertMatchesLikeSubstring("C-1");
+        assertMatchesLikeSubstring("-12");
+        assertMatchesLikeSubstring("B-0");
+        assertTrue(SkuPattern.compile("-").orElseThrow().matches(new SkuId("AAA-00000").packed()));
+    }
+
+    @Test
+    void patternThatFitsNowhereMatchesNothing() {
+        assertMatchesLikeSubstring("1A");
+        assertMatchesLikeSubstring("abc");
+        assertMatchesLikeSubstring("ABC-123456");
+        for (String sku : SKUS) {
+            assertFalse(SkuPattern.compile("--").orElseThrow().matches(new SkuId(sku).packed()));
+        }
+    }
+
+    @Test
+    void emptyPatternMatchesEverything() {
+        final SkuPattern pattern = SkuPattern.compile("").orElseThrow();
+
+        assertTrue(pattern.isRange());
+        assertTrue(pattern.matches(0));
+        assertTrue(pattern.matches(SkuId.MAX_PACKED));
+    }
+
+    @Test
+    void sqlWildcardsAreLeftToTheDatabase() {
+        assertTrue(SkuPattern.compile("A%C").isEmpty());
+        assertTrue(SkuPattern.compile("A_C").isEmpty());
+        assertTrue(SkuPattern.compile("\\A").isEmpty());
+    }
+
+    private static void assertMatchesLikeSubstring(String pattern) {
+        final SkuPattern compiled = SkuPattern.compile(pattern).orElseThrow();
+        for (String sku : SKUS) {
+            assertEquals(sku.contains(pattern), compiled.matches(new SkuId(sku).packed()),
+                    "'" + pattern + "' against " + sku);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+import jakarta.ws.rs.core.EntityTag;
+
+class ETagsTest {
+
+    private static final String QUERY = "sku=ABC&page=1&size=20";
+
+    private final ProductId productId = ProductId.newId();
+
+    @Test
+    void matchesQuotedStrongAndWeakTags() {
+        final EntityTag tag = ETags.ofVersion(7);
+
+        assertTrue(ETags.matches("\"7\"", tag));
+        assertTrue(ETags.matches("W/\"7\"", tag));
+        assertTrue(ETags.matches("\"3\", \"7\"", tag));
+        assertTrue(ETags.matches("*", tag));
+    }
+
+    @Test
+    void doesNotMatchOtherOrMalformedTags() {
+        final EntityTag tag = ETags.ofVersion(7);
+
+        assertFalse(ETags.matches(null, tag));
+        assertFalse(ETags.matches(" ", tag));
+        assertFalse(ETags.matches("\"8\"", tag));
+        assertFalse(ETags.matches("\"77\"", tag));
+        // Un validateur doit être cité
+        assertFalse(ETags.matches("7", tag));
+        assertFalse(ETags.matches("\"", tag));
+    }
+
+    @Test
+    void sameListGivesTheSameTag() {
+        final EntityTag tag = ETags.ofList(QUERY, List.of(summary(productId, 3)), OptionalLong.of(1), "c");
+
+        assertEquals(tag, ETags.ofList(QUERY, List.of(summary(productId, 3)), OptionalLong.of(1), "c"));
+        assertTrue(ETags.matches("\"" + tag.getValue() + "\"", tag));
+    }
+
+    @Test
+    void listTagChangesWithVersionsAndPagination() {
+        final List<ProductSummary> page = List.of(summary(productId, 3));
+        final EntityTag tag = ETags.ofList(QUERY, page, OptionalLong.of(1), null);
+
+        assertNotEquals(tag, ETags.ofList(QUERY, List.of(summary(productId, 4)), OptionalLong.of(1), null));
+        assertNotEquals(tag, ETags.ofList(QUERY, page, OptionalLong.of(2), null));
+        assertNotEquals(tag, ETags.ofList(QUERY, page, OptionalLong.empty(), null));
+        assertNotEquals(tag, ETags.ofList(QUERY, page, OptionalLong.of(1), "c"));
+        assertNotEquals(tag, ETags.ofList("sku=ABD&page=1&size=20", page, OptionalLong.of(1), null));
+    }
+
+    @Test
+    void adjacentFieldsDoNotRunTogether() {
+        // Même concaténation, découpage différent entre requête et curseur
+        assertNotEquals(ETags.ofList("ab", List.of(), OptionalLong.empty(), "c"),
+                ETags.ofList("a", List.of(), OptionalLong.empty(), "bc"));
+    }
+
+    private static ProductSummary summary(ProductId id, long version) {
+        return ProductSummary.Builder()
+                .id(id)
+                .version(version)
+                .skuId(new SkuId("ABC-12345"))
+                .name("Produit")
+                .status(ProductLifecycle.ACTIVE)
+                .catalogs(0)
+                .build();
+    }
+}
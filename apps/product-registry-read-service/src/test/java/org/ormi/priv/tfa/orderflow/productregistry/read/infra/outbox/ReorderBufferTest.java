@@ -0,0 +1,99 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.OutboxEntity;
+
+class ReorderBufferTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(3);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final ReorderBuffer buffer = new ReorderBuffer(MAX_WAIT, 2);
+    private final UUID aggregateId = UUID.randomUUID();
+    private final AtomicLong outboxIds = new AtomicLong();
+
+    @Test
+    void heldMessageIsReleasedWhenItsSequenceIsExpected() {
+        final OutboxEntity third = message(3);
+
+        assertTrue(buffer.hold(third, NOW));
+        assertEquals(Optional.empty(), buffer.release(aggregateId, 2));
+        assertEquals(Optional.of(third), buffer.release(aggregateId, 3));
+        // Libéré une seule fois
+        assertEquals(Optional.empty(), buffer.release(aggregateId, 3));
+    }
+
+    @Test
+    void heldMessageIsNotResubmittedUntilReleased() {
+        final OutboxEntity third = message(3);
+        buffer.hold(third, NOW);
+
+        assertTrue(buffer.isHeld(third, NOW.plusSeconds(1)));
+        assertFalse(buffer.isHeld(message(4), NOW));
+
+        buffer.release(aggregateId, 3);
+        assertFalse(buffer.isHeld(third, NOW.plusSeconds(1)));
+    }
+
+    @Test
+    void waitIsCutOffAfterMaxWait() {
+        final OutboxEntity third = message(3);
+        assertTrue(buffer.hold(third, NOW));
+
+        // Attente épuisée : le message est de nouveau soumis, puis refusé
+        assertFalse(buffer.isHeld(third, NOW.plus(MAX_WAIT).plusMillis(1)));
+        assertFalse(buffer.hold(third, NOW.plus(MAX_WAIT).plusMillis(1)));
+        assertTrue(buffer.hold(message(4), NOW.plus(MAX_WAIT)));
+    }
+
+    @Test
+    void holdIsRefusedBeyondMaxHeld() {
+        assertTrue(buffer.hold(message(3), NOW));
+        assertTrue(buffer.hold(message(4), NOW));
+
+        assertFalse(buffer.hold(message(5), NOW));
+        // Une relivraison d'un message déjà retenu ne compte pas
+        assertTrue(buffer.hold(message(4), NOW));
+    }
+
+    @Test
+    void releaseDropsStaleMessagesBelowTheExpectedSequence() {
+        final OutboxEntity third = message(3);
+        final OutboxEntity fifth = message(5);
+        buffer.hold(third, NOW);
+        buffer.hold(fifth, NOW);
+
+        assertEquals(Optional.of(fifth), buffer.release(aggregateId, 5));
+        assertFalse(buffer.isHeld(third, NOW));
+        assertEquals(Optional.empty(), buffer.release(aggregateId, 3));
+    }
+
+    @Test
+    void discardForgetsHeldMessages() {
+        final OutboxEntity third = message(3);
+        buffer.hold(third, NOW);
+
+        buffer.discard(aggregateId);
+
+        assertFalse(buffer.isHeld(third, NOW));
+        assertEquals(Optional.empty(), buffer.release(aggregateId, 3));
+    }
+
+    private OutboxEntity message(long sequence) {
+        final EventLogEntity event = new EventLogEntity();
+        event.setAggregateId(aggregateId);
+        event.setAggregateVersion(sequence);
+        return new OutboxEntity(outboxIds.incrementAndGet(), 0, NOW, "", event);
+    }
+}
@@ -0,0 +1,114 @@
+package org.ormi.priv.tfa.orderflow.productregistry.read.infra.rebuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductLifecycle;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProductViewCopyCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodedRowDecodesToTheSameColumns() throws Exception {
+        final ProductViewEntity entity = entity("Écran \"27 pouces\", mat", "Ligne 1\nLigne 2\r\n\"fin\"");
+
+        final String row = new String(ProductViewCopyCodec.encode(entity, objectMapper), StandardCharsets.UTF_8);
+        final List<String> columns = parseCsvRow(row);
+
+        assertEquals(ProductViewCopyCodec.COLUMNS.split(", ").length, columns.size());
+        assertEquals(entity.getId().toString(), columns.get(0));
+        assertEquals("3", columns.get(1));
+        assertEquals("ABC-12345", columns.get(2));
+        assertEquals(entity.getName(), columns.get(3));
+        assertEquals(entity.getDescription(), columns.get(4));
+        assertEquals("ACTIVE", columns.get(5));
+        assertEquals(entity.getEvents(), objectMapper.readTree(columns.get(6)));
+        assertEquals(entity.getCatalogs(), objectMapper.readTree(columns.get(7)));
+        assertEquals("1", columns.get(8));
+        assertEquals(entity.getCreatedAt(), Instant.parse(columns.get(9)));
+        assertEquals(entity.getUpdatedAt(), Instant.parse(columns.get(10)));
+    }
+
+    @Test
+    void rowEndsWithASingleNewlineOutsideQuotes() {
+        final String row = new String(ProductViewCopyCodec.encode(entity("n", "a\nb"), objectMapper),
+                StandardCharsets.UTF_8);
+
+        assertTrue(row.endsWith("\n"));
+        // Un saut de ligne cité ne termine pas la ligne
+        assertEquals(11, parseCsvRow(row).size());
+    }
+
+    @Test
+    void emptyStringsStayQuotedAndAreNotNull() {
+        final String row = new String(ProductViewCopyCodec.encode(entity("", ""), objectMapper),
+                StandardCharsets.UTF_8);
+
+        // En CSV de COPY, un champ vide non cité vaut NULL : il doit rester cité
+        assertTrue(row.contains(",\"\",\"\","));
+        assertEquals("", parseCsvRow(row).get(3));
+    }
+
+    private ProductViewEntity entity(String name, String description) {
+        final ProductViewEntity entity = new ProductViewEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setVersion(3L);
+        entity.setSkuId("ABC-12345");
+        entity.setName(name);
+        entity.setDescription(description);
+        entity.setStatus(ProductLifecycle.ACTIVE);
+        entity.setEvents(objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                .put("type", "ProductRenamed")
+                .put("name", "Nom, avec \"guillemets\"\net saut de ligne")));
+        entity.setCatalogs(objectMapper.createArrayNode().add("catalogue-1"));
+        entity.setCatalogCount(1);
+        entity.setCreatedAt(Instant.parse("2024-01-02T03:04:05.123456Z"));
+        entity.setUpdatedAt(Instant.parse("2024-01-02T03:04:06Z"));
+        return entity;
+    }
+
+    /**
+     * Lit une ligne comme COPY ... WITH (FORMAT csv) : guillemets doublés dans un champ
+     * cité, séparateurs et sauts de ligne cités littéraux.
+     */
+    private static List<String> parseCsvRow(String row) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            final char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                assertEquals(row.length() - 1, i, "Unquoted newline before the end of the row");
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -2,6 +2,7 @@ package org.ormi.priv.tfa.orderflow.store.infra.api;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.RestResponse;
@@ -14,10 +15,11 @@ import org.ormi.priv.tfa.orderflow.store.infra.api.dto.RetireProductDto;
 import org.ormi.priv.tfa.orderflow.store.infra.api.dto.SearchProductsDto;
 import org.ormi.priv.tfa.orderflow.store.infra.api.dto.UpdateProductDto;
 import org.ormi.priv.tfa.orderflow.store.infra.api.dto.ViewProductDto;
+import org.ormi.priv.tfa.orderflow.store.infra.api.dto.ViewProductsDto;
 import org.ormi.priv.tfa.orderflow.store.infra.rest.client.ProductRegistryDomainService;
-import org.ormi.priv.tfa.orderflow.store.infra.rest.client.ProductRegistryService;
+import org.ormi.priv.tfa.orderflow.store.infra.rest.client.CachedProductRegistryService;
 
-import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -39,10 +41,11 @@ import jakarta.ws.rs.core.Response.Status;
  *   <li>POST /products/updateProduct : mettre à jour un produit</li>
  *   <li>POST /products/retireProduct : retirer un produit</li>
  *   <li>POST /products/viewProduct : visualiser un produit</li>
+ *   <li>POST /products/viewProducts : visualiser plusieurs produits en un aller-retour</li>
  *   <li>POST /products/searchProducts : rechercher des produits</li>
  * </ul>
  *
- * @see ProductRegistryService pour les requêtes de lecture
+ * @see CachedProductRegistryService pour les requêtes de lecture
  * @see ProductRegistryDomainService pour les commandes d'écriture
  */
 @Path("/products")
@@ -56,9 +59,11 @@ import jakarta.ws.rs.core.Response.Status;
  */
 public class ProductRpcResource {
 
+    /** Aligné sur la limite de POST /products/_bulkGet du service de lecture. */
+    private static final int VIEW_PRODUCTS_MAX_IDS = 100;
+
     @Inject
-    @RestClient
-    private ProductRegistryService productRegistryService;
+    private CachedProductRegistryService productRegistryService;
     @Inject
     @RestClient
     private ProductRegistryDomainService productRegistryDomainService;
@@ -66,10 +71,11 @@ public class ProductRpcResource {
     @POST
     @Path("/registerProduct")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<Void> registerProduct(RegisterProductCommandDto product) {
         final var res = productRegistryDomainService.registerProduct(product);
         if (res.getStatus() == Status.CREATED.getStatusCode()) {
-            return RestResponse.ok();
+            return okWithVersion(res.getHeaderString(ProductRegistryDomainService.AGGREGATE_VERSION_HEADER));
         } else {
             return RestResponse.status(Status.BAD_REQUEST);
         }
@@ -78,7 +84,7 @@ public class ProductRpcResource {
     @POST
     @Path("/updateProduct")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Blocking
+    @RunOnVirtualThread
     public Uni<RestResponse<Void>> updateProduct(UpdateProductDto update) {
         if (update.id() == null || update.id().isEmpty()) {
             return Uni.createFrom().item(RestResponse.status(Status.BAD_REQUEST));
@@ -117,7 +123,12 @@ public class ProductRpcResource {
                 .map(r -> ((RestResponse<?>) r).getStatus())
                 .allMatch(status -> status == Status.NO_CONTENT.getStatusCode());
             if (allOk) {
-                return RestResponse.ok();
+                // Opérations appliquées dans l'ordre : la plus haute version est la dernière
+                return okWithVersion(results.stream()
+                    .map(r -> ((RestResponse<?>) r).getHeaderString(ProductRegistryDomainService.AGGREGATE_VERSION_HEADER))
+                    .filter(Objects::nonNull)
+                    .reduce((first, second) -> second)
+                    .orElse(null));
             } else {
                 return RestResponse.status(Status.INTERNAL_SERVER_ERROR);
             }
@@ -127,13 +138,14 @@ public class ProductRpcResource {
     @POST
     @Path("/retireProduct")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<Void> retireProduct(RetireProductDto retire) {
         if (retire.id() == null || retire.id().isEmpty()) {
             return RestResponse.status(Status.BAD_REQUEST);
         }
         final var res = productRegistryDomainService.retireProduct(retire.id());
         if (res.getStatus() == Status.NO_CONTENT.getStatusCode()) {
-            return RestResponse.ok();
+            return okWithVersion(res.getHeaderString(ProductRegistryDomainService.AGGREGATE_VERSION_HEADER));
         } else {
             return RestResponse.status(Status.INTERNAL_SERVER_ERROR);
         }
@@ -142,11 +154,31 @@ public class ProductRpcResource {
     @POST
     @Path("/viewProduct")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<ProductViewDto> viewProduct(ViewProductDto view) {
         if (view.id() == null || view.id().isEmpty()) {
             return RestResponse.status(Status.BAD_REQUEST);
         }
-        final var res = productRegistryService.getProductById(view.id());
+        final var res = productRegistryService.getProductById(view.id(), view.minVersion());
+        if (res.getStatus() == Status.OK.getStatusCode()) {
+            return RestResponse.ok(res.getEntity());
+        } else if (res.getStatus() == Status.SERVICE_UNAVAILABLE.getStatusCode()) {
+            // minVersion pas encore projetée
+            return RestResponse.status(Status.SERVICE_UNAVAILABLE);
+        } else {
+            return RestResponse.status(Status.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @POST
+    @Path("/viewProducts")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
+    public RestResponse<List<ProductViewDto>> viewProducts(ViewProductsDto view) {
+        if (view.ids() == null || view.ids().isEmpty() || view.ids().size() > VIEW_PRODUCTS_MAX_IDS) {
+            return RestResponse.status(Status.BAD_REQUEST);
+        }
+        final var res = productRegistryService.bulkGetProducts(view.ids());
         if (res.getStatus() == Status.OK.getStatusCode()) {
             return RestResponse.ok(res.getEntity());
         } else {
@@ -157,8 +189,10 @@ public class ProductRpcResource {
     @POST
     @Path("/searchProducts")
     @Consumes(MediaType.APPLICATION_JSON)
+    @RunOnVirtualThread
     public RestResponse<PaginatedProductListDto> searchProducts(SearchProductsDto search) {
-        final var res = productRegistryService.searchProducts(search.sku(), search.page(), search.size());
+        final var res = productRegistryService.searchProducts(search.sku(), search.page(), search.size(),
+                search.cursor(), search.withTotal() == null || search.withTotal(), search.q());
         if (res.getStatus() == Status.OK.getStatusCode()) {
             return RestResponse.ok(res.getEntity());
         } else {
@@ -166,6 +200,16 @@ public class ProductRpcResource {
         }
     }
 
+    /**
+     * Réponse de commande relayant la version rendue par le service de domaine, à passer en
+     * {@code minVersion} à viewProduct pour relire sa propre écriture.
+     */
+    private static RestResponse<Void> okWithVersion(String version) {
+        return RestResponse.ResponseBuilder.<Void>ok()
+                .header(ProductRegistryDomainService.AGGREGATE_VERSION_HEADER, version)
+                .build();
+    }
+
     // TODO: implement [Exercice 5]
     // @GET
     // @Path("/{id}/streamProductEvents")
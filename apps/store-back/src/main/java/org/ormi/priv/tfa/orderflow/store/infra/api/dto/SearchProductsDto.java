@@ -3,5 +3,8 @@ package org.ormi.priv.tfa.orderflow.store.infra.api.dto;
 public record SearchProductsDto(
         String sku,
         int page,
-        int size) {
+        int size,
+        String cursor,
+        Boolean withTotal,
+        String q) {
 }
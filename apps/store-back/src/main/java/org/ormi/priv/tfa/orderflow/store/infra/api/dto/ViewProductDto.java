@@ -1,4 +1,8 @@
 package org.ormi.priv.tfa.orderflow.store.infra.api.dto;
 
-public record ViewProductDto(String id) {
+/**
+ * @param id         l'identifiant du produit
+ * @param minVersion la version minimale attendue, rendue par une commande ; facultative
+ */
+public record ViewProductDto(String id, Long minVersion) {
 }
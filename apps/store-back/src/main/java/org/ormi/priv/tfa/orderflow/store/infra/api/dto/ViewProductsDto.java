@@ -0,0 +1,6 @@
+package org.ormi.priv.tfa.orderflow.store.infra.api.dto;
+
+import java.util.List;
+
+public record ViewProductsDto(List<String> ids) {
+}
@@ -0,0 +1,81 @@
+package org.ormi.priv.tfa.orderflow.store.infra.rest.client;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.RestResponse.Status;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.BulkGetProductsQueryDto;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.PaginatedProductListDto;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductViewDto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+
+/**
+ * Lectures du service Product Registry avec cache de réponses revalidé par ETag.
+ *
+ * <p>Chaque réponse 200 portant un ETag est conservée ; la requête suivante identique
+ * l'envoie en {@code If-None-Match} et, sur un 304, le corps conservé est renvoyé sans
+ * avoir transité sur le réseau. Le service de lecture reste seul juge de la fraîcheur.</p>
+ */
+@ApplicationScoped
+public class CachedProductRegistryService {
+
+    private static final long MAX_SIZE = 1_000;
+
+    private final ProductRegistryService client;
+    private final Cache<String, Cached<?>> responses = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    @Inject
+    public CachedProductRegistryService(@RestClient ProductRegistryService client) {
+        this.client = client;
+    }
+
+    /**
+     * @param minVersion la version minimale attendue ; le service de lecture retient la
+     *                   réponse jusqu'à ce que la projection l'atteigne
+     */
+    public RestResponse<ProductViewDto> getProductById(String id, Long minVersion) {
+        return revalidate("product:" + id, etag -> client.getProductById(id, minVersion, etag));
+    }
+
+    public RestResponse<PaginatedProductListDto> searchProducts(String sku, int page, int size, String cursor,
+            boolean withTotal, String q) {
+        return revalidate("search:" + sku + '|' + page + '|' + size + '|' + cursor + '|' + withTotal + '|' + q,
+                etag -> client.searchProducts(sku, page, size, cursor, withTotal, q, etag));
+    }
+
+    /**
+     * Lecture groupée, transmise telle quelle : elle ne porte pas de validateur.
+     */
+    public RestResponse<List<ProductViewDto>> bulkGetProducts(List<String> ids) {
+        return client.bulkGetProducts(new BulkGetProductsQueryDto(ids));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RestResponse<T> revalidate(String key, Function<String, RestResponse<T>> call) {
+        final Cached<T> cached = (Cached<T>) responses.getIfPresent(key);
+        final RestResponse<T> res = call.apply(cached == null ? null : cached.etag());
+        if (res.getStatus() == Status.NOT_MODIFIED.getStatusCode() && cached != null) {
+            return RestResponse.ok(cached.body());
+        }
+        final String etag = res.getHeaderString(HttpHeaders.ETAG);
+        if (res.getStatus() == Status.OK.getStatusCode() && etag != null) {
+            responses.put(key, new Cached<>(etag, res.getEntity()));
+        } else {
+            responses.invalidate(key);
+        }
+        return res;
+    }
+
+    private record Cached<T>(String etag, T body) {
+    }
+}
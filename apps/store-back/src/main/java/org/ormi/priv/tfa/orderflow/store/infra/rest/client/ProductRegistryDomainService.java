@@ -26,13 +26,18 @@ import jakarta.ws.rs.PathParam;
  *   <li>PATCH /products/{id}/name : mettre à jour le nom</li>
  *   <li>PATCH /products/{id}/description : mettre à jour la description</li>
  * </ul>
+ *
+ * <p>Les réponses portent la nouvelle version du produit dans l'en-tête
+ * {@value #AGGREGATE_VERSION_HEADER}.</p>
  */
 
 @ApplicationScoped
 @Path("/products")
 @RegisterRestClient(configKey = "product-registry-api")
 public interface ProductRegistryDomainService {
-    
+
+    String AGGREGATE_VERSION_HEADER = "X-Aggregate-Version";
+
     @POST
     RestResponse<Void> registerProduct(RegisterProductCommandDto cmd);
 
@@ -2,14 +2,20 @@ package org.ormi.priv.tfa.orderflow.store.infra.rest.client;
 
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.jboss.resteasy.reactive.RestResponse;
+import java.util.List;
+
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.BulkGetProductsQueryDto;
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.PaginatedProductListDto;
 import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductViewDto;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 
 /**
  * Client REST pour le service de lecture Product Registry.
@@ -19,9 +25,17 @@ import jakarta.ws.rs.QueryParam;
  *
  * <p>Endpoints :</p>
  * <ul>
- *   <li>GET /products : rechercher les produits (paginé)</li>
- *   <li>GET /products/{id} : récupérer un produit spécifique</li>
+ *   <li>GET /products : rechercher les produits par SKU ou en plein texte ({@code q}),
+ *       paginé par numéro de page ou par curseur</li>
+ *   <li>GET /products/{id} : récupérer un produit spécifique, au besoin en attendant qu'il
+ *       atteigne une version ({@code minVersion})</li>
+ *   <li>POST /products/_bulkGet : récupérer plusieurs produits en une requête</li>
  * </ul>
+ *
+ * <p>Les variantes prenant {@code ifNoneMatch} revalident une réponse déjà détenue : le
+ * service répond 304 sans corps si elle est toujours à jour.</p>
+ *
+ * @see CachedProductRegistryService pour le cache de réponses du client
  */
 
 @ApplicationScoped
@@ -40,9 +54,44 @@ public interface ProductRegistryService {
             @QueryParam("page") int page,
             @QueryParam("size") int size);
 
+    @GET
+    RestResponse<PaginatedProductListDto> searchProducts(
+            @QueryParam("sku") String sku,
+            @QueryParam("page") int page,
+            @QueryParam("size") int size,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("withTotal") boolean withTotal);
+
+    @GET
+    RestResponse<PaginatedProductListDto> searchProducts(
+            @QueryParam("sku") String sku,
+            @QueryParam("page") int page,
+            @QueryParam("size") int size,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("withTotal") boolean withTotal,
+            @QueryParam("q") String q,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
     @GET
     @Path("/{id}")
     RestResponse<ProductViewDto> getProductById(@PathParam("id") String id);
 
+    @GET
+    @Path("/{id}")
+    RestResponse<ProductViewDto> getProductById(
+            @PathParam("id") String id,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
+    @GET
+    @Path("/{id}")
+    RestResponse<ProductViewDto> getProductById(
+            @PathParam("id") String id,
+            @QueryParam("minVersion") Long minVersion,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
+    @POST
+    @Path("/_bulkGet")
+    RestResponse<List<ProductViewDto>> bulkGetProducts(BulkGetProductsQueryDto query);
+
     // TODO: implement [Exercice 5] (streamProductEventsByProductId) (Utiliser Multi de SmallRye Mutiny)
 }
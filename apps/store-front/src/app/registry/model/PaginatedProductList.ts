@@ -5,4 +5,5 @@ export interface PaginatedProductList {
     page: number;
     pageSize: number;
     totalElements: number;
+    nextCursor?: string | null;
 }
\ No newline at end of file
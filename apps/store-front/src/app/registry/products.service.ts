@@ -12,6 +12,7 @@ export class ProductsService {
     static BASE_URL = "/api/products";
     static ENDPOINTS = {
         VIEW: `${ProductsService.BASE_URL}/viewProduct`,
+        VIEW_MANY: `${ProductsService.BASE_URL}/viewProducts`,
         REGISTER: `${ProductsService.BASE_URL}/registerProduct`,
         UPDATE: `${ProductsService.BASE_URL}/updateProduct`,
         RETIRE: `${ProductsService.BASE_URL}/retireProduct`,
@@ -28,17 +29,24 @@ export class ProductsService {
 
     getProductById(id: string) {
         return this.http.post<ProductView>(`${ProductsService.ENDPOINTS.VIEW}`, { id })
-            .pipe(
-                map(view => ({
-                    ...view,
-                    createdAt: new Date(view.createdAt),
-                    updatedAt: new Date(view.updatedAt),
-                    events: view.events.map(event => ({
-                        ...event,
-                        timestamp: new Date(event.timestamp)
-                    }))
-                }))
-            );
+            .pipe(map(ProductsService.parseDates));
+    }
+
+    getProductsByIds(ids: string[]) {
+        return this.http.post<ProductView[]>(`${ProductsService.ENDPOINTS.VIEW_MANY}`, { ids })
+            .pipe(map(views => views.map(ProductsService.parseDates)));
+    }
+
+    private static parseDates(view: ProductView): ProductView {
+        return {
+            ...view,
+            createdAt: new Date(view.createdAt),
+            updatedAt: new Date(view.updatedAt),
+            events: view.events.map(event => ({
+                ...event,
+                timestamp: new Date(event.timestamp)
+            }))
+        };
     }
 
     updateProduct(update: UpdateProductRequest) {
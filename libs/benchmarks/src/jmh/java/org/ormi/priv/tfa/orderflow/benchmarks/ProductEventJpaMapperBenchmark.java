@@ -0,0 +1,56 @@
+package org.ormi.priv.tfa.orderflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.BenchmarkMappers;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.ProductEventFixtures;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.jpa.ProductEventJpaMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Coût de la désérialisation d'une ligne du journal d'événements en enveloppe typée,
+ * exécutée pour chaque message d'outbox.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductEventJpaMapperBenchmark {
+
+    @Param({ "ProductRegistered", "ProductNameUpdated", "ProductDescriptionUpdated", "ProductRetired" })
+    String eventType;
+
+    private ProductEventJpaMapper mapper;
+    private EventLogEntity entity;
+
+    @Setup
+    public void setup() {
+        final ObjectMapper objectMapper = BenchmarkMappers.objectMapper();
+        final ProductId productId = ProductEventFixtures.productId(1L);
+        final ProductEventV1Envelope<?> envelope = switch (eventType) {
+            case "ProductRegistered" -> ProductEventFixtures.registered(productId, 1L);
+            case "ProductNameUpdated" -> ProductEventFixtures.update(productId, 2L);
+            case "ProductDescriptionUpdated" -> ProductEventFixtures.update(productId, 3L);
+            case "ProductRetired" -> ProductEventFixtures.retired(productId, 4L);
+            default -> throw new IllegalArgumentException("Unknown event type: " + eventType);
+        };
+        mapper = new ProductEventJpaMapper();
+        entity = ProductEventFixtures.toEventLog(envelope, objectMapper);
+    }
+
+    @Benchmark
+    public ProductEventV1Envelope<?> toProductEventV1() {
+        return mapper.toProductEventV1(entity);
+    }
+}
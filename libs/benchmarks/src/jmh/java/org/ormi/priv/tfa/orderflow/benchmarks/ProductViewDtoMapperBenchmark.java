@@ -0,0 +1,43 @@
+package org.ormi.priv.tfa.orderflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.BenchmarkMappers;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.ProductEventFixtures;
+import org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read.ProductViewDto;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.web.dto.ProductViewDtoMapper;
+
+/**
+ * Coût du mappage d'une vue produit vers le DTO exposé par {@code GET /products/{id}}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductViewDtoMapperBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    int historyLength;
+
+    private ProductViewDtoMapper mapper;
+    private ProductView view;
+
+    @Setup
+    public void setup() {
+        mapper = new BenchmarkMappers().get(ProductViewDtoMapper.class);
+        view = ProductEventFixtures.view(ProductEventFixtures.productId(1L), historyLength);
+    }
+
+    @Benchmark
+    public ProductViewDto toDto() {
+        return mapper.toDto(view);
+    }
+}
@@ -0,0 +1,60 @@
+package org.ormi.priv.tfa.orderflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.BenchmarkMappers;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.ProductEventFixtures;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewEntity;
+import org.ormi.priv.tfa.orderflow.productregistry.read.infra.jpa.ProductViewJpaMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Coût des conversions JSON (colonnes jsonb {@code events} et {@code catalogs})
+ * entre la vue produit et son entité JPA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductViewJpaMapperBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    int historyLength;
+
+    private ProductViewJpaMapper mapper;
+    private ObjectMapper objectMapper;
+    private ProductView view;
+    private ProductViewEntity entity;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkMappers.objectMapper();
+        mapper = new BenchmarkMappers().get(ProductViewJpaMapper.class);
+        view = ProductEventFixtures.view(ProductEventFixtures.productId(1L), historyLength);
+        entity = mapper.toEntity(view, objectMapper);
+    }
+
+    @Benchmark
+    public ProductViewEntity toEntity() {
+        return mapper.toEntity(view, objectMapper);
+    }
+
+    @Benchmark
+    public ProductView toDomain() {
+        return mapper.toDomain(entity, objectMapper);
+    }
+
+    @Benchmark
+    public ProductView roundTrip() {
+        return mapper.toDomain(mapper.toEntity(view, objectMapper), objectMapper);
+    }
+}
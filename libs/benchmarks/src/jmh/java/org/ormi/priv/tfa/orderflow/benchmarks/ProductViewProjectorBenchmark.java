@@ -0,0 +1,62 @@
+package org.ormi.priv.tfa.orderflow.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.ProductEventFixtures;
+import org.ormi.priv.tfa.orderflow.cqrs.Projector.ProjectionResult;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.projection.ProductViewProjector;
+
+/**
+ * Coût de la projection des vues produit.
+ *
+ * <ul>
+ *   <li>{@code projectAll} : rejoue un historique complet de {@code historyLength} événements</li>
+ *   <li>{@code projectNext} : applique un seul événement sur une vue portant déjà
+ *       {@code historyLength} événements (cas nominal du poller d'outbox)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductViewProjectorBenchmark {
+
+    @Param({ "1", "10", "100", "1000", "10000" })
+    int historyLength;
+
+    private ProductViewProjector projector;
+    private List<ProductEventV1Envelope<?>> history;
+    private Optional<ProductView> currentView;
+    private ProductEventV1Envelope<?> nextEvent;
+
+    @Setup
+    public void setup() {
+        final ProductId productId = ProductEventFixtures.productId(1L);
+        projector = new ProductViewProjector();
+        history = ProductEventFixtures.history(productId, historyLength);
+        currentView = Optional.of(projector.projectAll(Optional.empty(), history).getProjection());
+        nextEvent = ProductEventFixtures.update(productId, historyLength + 1L);
+    }
+
+    @Benchmark
+    public ProjectionResult<ProductView> projectAll() {
+        return projector.projectAll(Optional.empty(), history);
+    }
+
+    @Benchmark
+    public ProjectionResult<ProductView> projectNext() {
+        return projector.project(currentView, nextEvent);
+    }
+}
@@ -0,0 +1,41 @@
+package org.ormi.priv.tfa.orderflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.ormi.priv.tfa.orderflow.benchmarks.support.ProductEventFixtures;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+
+/**
+ * Coût de la construction (et donc de la validation par expression régulière) d'un {@link SkuId}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SkuIdBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final int MASK = SAMPLES - 1;
+
+    private String[] values;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        values = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = ProductEventFixtures.sku(i * 7_919L).value();
+        }
+    }
+
+    @Benchmark
+    public SkuId construct() {
+        return new SkuId(values[cursor++ & MASK]);
+    }
+}
@@ -0,0 +1,92 @@
+package org.ormi.priv.tfa.orderflow.benchmarks.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+
+/**
+ * Instanciation hors conteneur CDI des mappeurs MapStruct et de l'ObjectMapper.
+ *
+ * <p>Les mappeurs sont générés avec {@code componentModel = "cdi"} : leurs dépendances
+ * sont injectées par constructeur ou par champ. Cette classe résout l'implémentation
+ * générée ({@code <Mapper>Impl}) et câble ses dépendances par réflexion, sans démarrer
+ * Quarkus.</p>
+ */
+public final class BenchmarkMappers {
+
+    private static final String IMPLEMENTATION_SUFFIX = "Impl";
+
+    private final Map<Class<?>, Object> instances = new HashMap<>();
+
+    /**
+     * ObjectMapper configuré comme celui fourni par {@code quarkus-jackson}.
+     *
+     * @return un nouvel ObjectMapper
+     */
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new Jdk8Module())
+                .addModule(new JavaTimeModule())
+                .addModule(new ParameterNamesModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build();
+    }
+
+    /**
+     * Retourne l'implémentation générée du mappeur, ses dépendances étant câblées.
+     *
+     * @param <T>  le type du mappeur
+     * @param type l'interface ou la classe abstraite annotée {@code @Mapper}
+     * @return l'instance du mappeur, partagée pour cette fabrique
+     */
+    public <T> T get(Class<T> type) {
+        final Object existing = instances.get(type);
+        if (existing != null) {
+            return type.cast(existing);
+        }
+        try {
+            final Class<?> impl = Class.forName(type.getName() + IMPLEMENTATION_SUFFIX, true, type.getClassLoader());
+            final Constructor<?> ctor = Arrays.stream(impl.getDeclaredConstructors())
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow();
+            ctor.setAccessible(true);
+            final Object[] args = Arrays.stream(ctor.getParameterTypes())
+                    .map(this::get)
+                    .toArray();
+            final T instance = type.cast(ctor.newInstance(args));
+            instances.put(type, instance);
+            injectFields(impl, instance);
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate mapper " + type.getName(), e);
+        }
+    }
+
+    private void injectFields(Class<?> impl, Object instance) throws IllegalAccessException {
+        for (Class<?> c = impl; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                if (field.get(instance) == null) {
+                    field.set(instance, get(field.getType()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.ormi.priv.tfa.orderflow.benchmarks.support;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.ormi.priv.tfa.orderflow.cqrs.DomainEvent;
+import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
+import org.ormi.priv.tfa.orderflow.kernel.Product;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1.ProductDescriptionUpdated;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1.ProductNameUpdated;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1.ProductRegistered;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1.ProductRetired;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductDescriptionUpdatedEnvelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductNameUpdatedEnvelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductRegisteredEnvelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductEventV1Envelope.ProductRetiredEnvelope;
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
+import org.ormi.priv.tfa.orderflow.productregistry.read.projection.ProductViewProjector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jeux de données déterministes pour les benchmarks.
+ *
+ * <p>Produit des historiques d'événements produit réalistes : un enregistrement
+ * suivi d'une alternance de mises à jour du nom et de la description.</p>
+ */
+public final class ProductEventFixtures {
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private ProductEventFixtures() {
+    }
+
+    /**
+     * Construit un historique de {@code length} événements pour un même produit.
+     *
+     * @param productId l'identifiant du produit
+     * @param length    le nombre d'événements (au moins 1)
+     * @return l'historique ordonné par séquence
+     */
+    public static List<ProductEventV1Envelope<?>> history(ProductId productId, int length) {
+        final List<ProductEventV1Envelope<?>> events = new ArrayList<>(length);
+        events.add(registered(productId, 1L));
+        for (long seq = 2; seq <= length; seq++) {
+            events.add(update(productId, seq));
+        }
+        return events;
+    }
+
+    /**
+     * Projette un historique complet pour obtenir une vue de départ.
+     *
+     * @param productId l'identifiant du produit
+     * @param length    le nombre d'événements appliqués
+     * @return la vue projetée
+     */
+    public static ProductView view(ProductId productId, int length) {
+        return new ProductViewProjector()
+                .projectAll(Optional.empty(), history(productId, length))
+                .getProjection();
+    }
+
+    public static ProductRegisteredEnvelope registered(ProductId productId, long sequence) {
+        return new ProductRegisteredEnvelope(
+                new ProductRegistered(productId, sku(productId), "Product " + sequence, "Description " + sequence),
+                sequence,
+                at(sequence));
+    }
+
+    /**
+     * Événement de mise à jour pour la séquence donnée (nom pour les séquences paires,
+     * description pour les impaires).
+     */
+    public static ProductEventV1Envelope<?> update(ProductId productId, long sequence) {
+        if (sequence % 2 == 0) {
+            return new ProductNameUpdatedEnvelope(
+                    new ProductNameUpdated(productId, "Product " + (sequence - 1), "Product " + sequence),
+                    sequence,
+                    at(sequence));
+        }
+        return new ProductDescriptionUpdatedEnvelope(
+                new ProductDescriptionUpdated(productId, "Description " + (sequence - 1), "Description " + sequence),
+                sequence,
+                at(sequence));
+    }
+
+    public static ProductRetiredEnvelope retired(ProductId productId, long sequence) {
+        return new ProductRetiredEnvelope(new ProductRetired(productId), sequence, at(sequence));
+    }
+
+    /**
+     * Construit la ligne du journal d'événements telle que lue depuis {@code eventing.event_log}.
+     *
+     * @param envelope     l'enveloppe d'événement
+     * @param objectMapper le mappeur JSON utilisé pour le payload
+     * @return l'entité du journal
+     */
+    public static EventLogEntity toEventLog(ProductEventV1Envelope<?> envelope, ObjectMapper objectMapper) {
+        final DomainEvent event = envelope.event();
+        final EventLogEntity entity = new EventLogEntity();
+        entity.setAggregateType(Product.class.getSimpleName());
+        entity.setAggregateId(envelope.aggregateId());
+        entity.setAggregateVersion(envelope.sequence());
+        entity.setEventType(event.eventType());
+        entity.setEventVersion(event.version());
+        entity.setOccurredAt(envelope.timestamp());
+        entity.setPayload(objectMapper.valueToTree(event.payload()));
+        return entity;
+    }
+
+    /**
+     * SKU stable dérivé de l'identifiant produit.
+     */
+    public static SkuId sku(ProductId productId) {
+        return sku(Math.floorMod(productId.value().getLeastSignificantBits(), 26L * 26 * 26 * 100_000));
+    }
+
+    /**
+     * SKU d'index {@code n} dans l'espace {@code AAA-00000 .. ZZZ-99999}.
+     */
+    public static SkuId sku(long n) {
+        final long digits = n % 100_000;
+        long letters = n / 100_000;
+        final char[] prefix = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            prefix[i] = (char) ('A' + letters % 26);
+            letters /= 26;
+        }
+        return new SkuId(String.format("%s-%05d", new String(prefix), digits));
+    }
+
+    public static ProductId productId(long n) {
+        return new ProductId(new UUID(0L, n));
+    }
+
+    private static Instant at(long sequence) {
+        return EPOCH.plusSeconds(sequence);
+    }
+}
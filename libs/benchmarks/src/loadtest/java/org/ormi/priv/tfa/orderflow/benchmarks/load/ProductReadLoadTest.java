@@ -0,0 +1,222 @@
+package org.ormi.priv.tfa.orderflow.benchmarks.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test de charge local des lectures de produit, à forte concurrence.
+ *
+ * <p>Chaque scénario ({@code load.scenarios}, séparés par des virgules) charge un seul
+ * point d'accès :</p>
+ * <ul>
+ *   <li>{@code by-id} : {@code GET /products/{id}} ; les défauts de cache sont lus par le
+ *       client Postgres réactif, ou par Hibernate ORM sur le pool de travail selon
+ *       {@code BY_ID_REPOSITORY} ;</li>
+ *   <li>{@code bulk-get} : {@code POST /products/_bulkGet} pour un seul identifiant, sur
+ *       JDBC et Hibernate ORM ;</li>
+ *   <li>{@code search} : {@code GET /products}, une page au hasard, sur JDBC ;</li>
+ *   <li>{@code store} : {@code POST /products/viewProduct} de store-back
+ *       ({@code load.storeUrl}), qui appelle à son tour le service de lecture.</li>
+ * </ul>
+ *
+ * <p>Une comparaison lance le même scénario deux fois à concurrence égale, contre le
+ * service redémarré entre les deux passes ; {@code load.label} étiquette les résultats de
+ * chaque passe :</p>
+ * <ul>
+ *   <li>lecture réactive ou bloquante : {@code by-id}, avec {@code BY_ID_REPOSITORY=reactive}
+ *       puis {@code jpa} ;</li>
+ *   <li>threads virtuels ou pool de travail : {@code bulk-get}, {@code search} ou
+ *       {@code store}, avec {@code VIRTUAL_THREADS_ENABLED=true} puis {@code false}.</li>
+ * </ul>
+ *
+ * <p>Les identifiants sont tirés au hasard dans l'export du catalogue. Pour mesurer la base
+ * plutôt que le cache, le catalogue doit dépasser largement la taille du cache des vues.</p>
+ */
+public final class ProductReadLoadTest {
+
+    private static final String BASE_URL = System.getProperty("load.baseUrl", "http://localhost:8092/api");
+    private static final String STORE_URL = System.getProperty("load.storeUrl", "http://localhost:8080/api");
+    private static final List<String> SCENARIOS = List.of(
+            System.getProperty("load.scenarios", "bulk-get,search").split(","));
+    private static final String LABEL = System.getProperty("load.label", "");
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 512);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmupSeconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 30));
+    private static final int MAX_IDS = 100_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ProductReadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        final List<String> ids = loadIds(client);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No product to read at " + BASE_URL);
+        }
+        System.out.printf("%s%d products, concurrency %d, %ds per scenario%n",
+                LABEL.isEmpty() ? "" : "[" + LABEL + "] ", ids.size(), CONCURRENCY, DURATION.toSeconds());
+        final Map<String, Function<String, HttpRequest>> scenarios = Map.of(
+                "by-id", id -> HttpRequest.newBuilder(URI.create(BASE_URL + "/products/" + id))
+                        .GET()
+                        .build(),
+                "bulk-get", id -> post(BASE_URL + "/products/_bulkGet", "{\"ids\":[\"" + id + "\"]}"),
+                // Page tirée avec l'identifiant : les pages varient sans sortir du catalogue
+                "search", id -> HttpRequest.newBuilder(URI.create(BASE_URL + "/products?size=20&withTotal=false&page="
+                        + (Math.floorMod(id.hashCode(), Math.max(1, ids.size() / 20)) + 1)))
+                        .GET()
+                        .build(),
+                "store", id -> post(STORE_URL + "/products/viewProduct", "{\"id\":\"" + id + "\"}"));
+        for (String scenario : SCENARIOS) {
+            final Function<String, HttpRequest> request = scenarios.get(scenario.trim());
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of "
+                        + scenarios.keySet());
+            }
+            run(client, scenario.trim(), request, ids);
+        }
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static List<String> loadIds(HttpClient client) throws IOException, InterruptedException {
+        final HttpResponse<InputStream> res = client.send(
+                HttpRequest.newBuilder(URI.create(BASE_URL + "/products/export?view=summary")).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        final List<String> ids = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(res.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null && ids.size() < MAX_IDS) {
+                ids.add(MAPPER.readTree(line).get("id").asText());
+            }
+        }
+        return ids;
+    }
+
+    private static void run(HttpClient client, String scenario, Function<String, HttpRequest> request,
+            List<String> ids) throws InterruptedException {
+        drive(client, request, ids, WARMUP);
+        final Result result = drive(client, request, ids, DURATION);
+        final long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %-8s %9d req %9.0f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms"
+                + "  errors %d%n",
+                LABEL,
+                scenario,
+                latencies.length,
+                latencies.length / (double) DURATION.toSeconds(),
+                millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.99)),
+                millis(percentile(latencies, 0.999)),
+                millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]),
+                result.errors());
+    }
+
+    /**
+     * Boucle fermée : chaque utilisateur virtuel envoie sa requête suivante dès la réponse
+     * reçue.
+     */
+    private static Result drive(HttpClient client, Function<String, HttpRequest> request, List<String> ids,
+            Duration duration) throws InterruptedException {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final AtomicLong errors = new AtomicLong();
+        final List<LatencyRecorder> recorders = new ArrayList<>(CONCURRENCY);
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                final LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                users.execute(() -> {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        final HttpRequest req = request.apply(ids.get(random.nextInt(ids.size())));
+                        final long start = System.nanoTime();
+                        try {
+                            final HttpResponse<Void> res = client.send(req, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            recorder.record(System.nanoTime() - start);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        final int total = recorders.stream().mapToInt(LatencyRecorder::size).sum();
+        final long[] latencies = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            offset = recorder.copyTo(latencies, offset);
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    /** Latences d'un utilisateur virtuel, sans allocation par requête. */
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int copyTo(long[] target, int offset) {
+            System.arraycopy(values, 0, target, offset, size);
+            return offset + size;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read;
+
+import java.util.List;
+
+/**
+ * DTO de lecture groupée de produits.
+ *
+ * <p>Corps des requêtes POST /products/_bulkGet ; la réponse est la liste des
+ * {@link ProductViewDto} trouvés, dans l'ordre des identifiants demandés.</p>
+ *
+ * @param ids les identifiants des produits
+ */
+public record BulkGetProductsQueryDto(List<String> ids) {
+}
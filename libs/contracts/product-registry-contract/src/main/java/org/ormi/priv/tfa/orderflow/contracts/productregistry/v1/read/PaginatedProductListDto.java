@@ -10,12 +10,15 @@ import java.util.List;
  * @param products la liste des produits de la page actuelle
  * @param page le numéro de page actuel (1-basé)
  * @param pageSize le nombre d'éléments par page
- * @param totalElements le nombre total d'éléments correspondant au critère de recherche
+ * @param totalElements le nombre total d'éléments correspondant au critère de recherche,
+ *                      {@code null} si le comptage n'a pas été demandé ({@code withTotal=false})
+ * @param nextCursor le curseur opaque de la page suivante, {@code null} s'il n'y en a pas
  */
 public record PaginatedProductListDto(
     List<ProductSummaryDto> products,
     int page,
     int pageSize,
-    long totalElements
+    Long totalElements,
+    String nextCursor
 ) {
 }
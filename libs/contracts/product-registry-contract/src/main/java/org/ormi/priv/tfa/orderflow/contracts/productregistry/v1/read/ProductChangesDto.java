@@ -0,0 +1,20 @@
+package org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read;
+
+import java.util.List;
+
+/**
+ * DTO d'une tranche du flux des changements de produits.
+ *
+ * <p>Transfert d'objet pour les réponses des requêtes GET /products/changes. Un produit
+ * modifié plusieurs fois n'apparaît qu'une fois, à la position de son dernier changement.</p>
+ *
+ * @param products les résumés des produits modifiés, par position croissante
+ * @param nextPosition la position à passer en {@code since} pour la tranche suivante
+ * @param hasMore vrai si d'autres changements suivent déjà cette tranche
+ */
+public record ProductChangesDto(
+    List<ProductSummaryDto> products,
+    long nextPosition,
+    boolean hasMore
+) {
+}
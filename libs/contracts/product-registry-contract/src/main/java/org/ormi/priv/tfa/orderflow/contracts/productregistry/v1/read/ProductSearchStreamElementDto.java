@@ -0,0 +1,23 @@
+package org.ormi.priv.tfa.orderflow.contracts.productregistry.v1.read;
+
+import java.time.Instant;
+
+/**
+ * DTO représentant un changement du résultat d'une recherche suivie en direct.
+ *
+ * <p>Diffusé aux clients abonnés à un motif de SKU : ils tiennent leur liste à jour
+ * sans relancer la recherche.</p>
+ *
+ * @param change le changement (ENTERED : le produit entre dans le résultat,
+ *               EXITED : il en sort, UPDATED : il y reste et a changé)
+ * @param type le type d'événement à l'origine du changement (ex: ProductNameUpdated)
+ * @param product le résumé du produit après l'événement
+ * @param occuredAt l'instant d'occurrence de l'événement
+ */
+public record ProductSearchStreamElementDto(
+    String change,
+    String type,
+    ProductSummaryDto product,
+    Instant occuredAt
+) {
+}
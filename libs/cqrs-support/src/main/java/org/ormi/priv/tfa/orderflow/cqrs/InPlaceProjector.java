@@ -0,0 +1,59 @@
+package org.ormi.priv.tfa.orderflow.cqrs;
+
+import java.util.Optional;
+
+/**
+ * Projector able to apply events onto a mutable builder.
+ *
+ * <p>Replaying a long history with {@link Projector#project} builds one immutable state
+ * per event. An in-place projector instead mutates a single builder for the whole
+ * history, and {@link ProjectionFold} builds the immutable state once at the end.</p>
+ *
+ * <p>{@link #project} is derived from the in-place hook, so the projection rules are
+ * written once.</p>
+ *
+ * @param <S> the type of the projected state
+ * @param <B> the type of the mutable builder
+ * @param <E> the type of the events
+ */
+public interface InPlaceProjector<S, B, E extends EventEnvelope<? extends DomainEvent>> extends Projector<S, E> {
+    /**
+     * Creates a builder initialized from the current state.
+     *
+     * @param current the current state
+     * @return a mutable builder
+     */
+    B builderOf(Optional<S> current);
+
+    /**
+     * Projects an event onto the builder.
+     *
+     * <p>The builder must be left untouched when the result is a failure or a no-op.</p>
+     *
+     * @param builder the builder to update
+     * @param ev      the event to project
+     * @return the builder if the event was applied, a no-op or a failure otherwise
+     */
+    ProjectionResult<B> projectInPlace(B builder, E ev);
+
+    /**
+     * Builds the immutable state from the builder.
+     *
+     * @param builder the builder
+     * @return the projected state
+     */
+    S build(B builder);
+
+    @Override
+    default ProjectionResult<S> project(Optional<S> current, E ev) {
+        final B builder = builderOf(current);
+        final ProjectionResult<B> result = projectInPlace(builder, ev);
+        if (result.isSuccess()) {
+            return ProjectionResult.projected(build(builder));
+        }
+        if (result.isNoOp()) {
+            return ProjectionResult.noOp(result.getNoopReason());
+        }
+        return ProjectionResult.failed(result.getError());
+    }
+}
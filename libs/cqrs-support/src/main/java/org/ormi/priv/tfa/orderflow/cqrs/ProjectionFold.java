@@ -0,0 +1,108 @@
+package org.ormi.priv.tfa.orderflow.cqrs;
+
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.cqrs.Projector.ProjectionResult;
+
+/**
+ * Fold engine replaying an ordered list of events onto a state.
+ *
+ * <p>Unlike a {@code Stream.reduce}, the fold keeps its accumulator in mutable locals:
+ * no intermediate {@link ProjectionResult} or accumulator record is retained per event,
+ * and the loop stops at the first failure. When the projector is an
+ * {@link InPlaceProjector}, a single builder is mutated across the whole history and
+ * the immutable state is built once at the end.</p>
+ *
+ * <p>Semantics, per event:</p>
+ * <ul>
+ *   <li>events whose sequence is lower than or equal to the last seen sequence are skipped</li>
+ *   <li>a failure short-circuits the fold and is returned as is</li>
+ *   <li>a no-op keeps the current state and the fold goes on</li>
+ *   <li>a success replaces the current state</li>
+ * </ul>
+ * <p>The fold returns the projected state if at least one event was applied, the last
+ * no-op if none was, or the initial state when there was nothing to replay.</p>
+ */
+public final class ProjectionFold {
+
+    private ProjectionFold() {
+    }
+
+    /**
+     * Folds the events onto the current state.
+     *
+     * @param <S>            the type of the projected state
+     * @param <E>            the type of the events
+     * @param projector      the projector applying each event
+     * @param current        the current state
+     * @param events         the events to project, ordered by sequence
+     * @param initialVersion the sequence already reflected by the current state
+     * @return the projection result
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, E extends EventEnvelope<? extends DomainEvent>> ProjectionResult<S> fold(
+            Projector<S, E> projector, Optional<S> current, Iterable<E> events, long initialVersion) {
+        if (projector instanceof InPlaceProjector<?, ?, ?> inPlace) {
+            return foldInPlace((InPlaceProjector<S, Object, E>) inPlace, current, events, initialVersion);
+        }
+        S state = current.orElse(null);
+        long lastSequence = initialVersion;
+        boolean applied = false;
+        ProjectionResult<S> lastNoOp = null;
+        for (E ev : events) {
+            final long sequence = ev.sequence();
+            if (sequence <= lastSequence) {
+                continue;
+            }
+            lastSequence = sequence;
+            final ProjectionResult<S> step = projector.project(Optional.ofNullable(state), ev);
+            if (step.isSuccess()) {
+                state = step.getProjection();
+                applied = true;
+            } else if (step.isNoOp()) {
+                lastNoOp = step;
+            } else {
+                return ProjectionResult.failed(step.getError());
+            }
+        }
+        return result(state, applied, lastNoOp);
+    }
+
+    private static <S, B, E extends EventEnvelope<? extends DomainEvent>> ProjectionResult<S> foldInPlace(
+            InPlaceProjector<S, B, E> projector, Optional<S> current, Iterable<E> events, long initialVersion) {
+        B builder = null;
+        long lastSequence = initialVersion;
+        boolean applied = false;
+        ProjectionResult<B> lastNoOp = null;
+        for (E ev : events) {
+            final long sequence = ev.sequence();
+            if (sequence <= lastSequence) {
+                continue;
+            }
+            lastSequence = sequence;
+            if (builder == null) {
+                builder = projector.builderOf(current);
+            }
+            final ProjectionResult<B> step = projector.projectInPlace(builder, ev);
+            if (step.isSuccess()) {
+                applied = true;
+            } else if (step.isNoOp()) {
+                lastNoOp = step;
+            } else {
+                return ProjectionResult.failed(step.getError());
+            }
+        }
+        if (applied) {
+            return ProjectionResult.projected(projector.build(builder));
+        }
+        return result(current.orElse(null), false,
+                lastNoOp == null ? null : ProjectionResult.noOp(lastNoOp.getNoopReason()));
+    }
+
+    private static <S> ProjectionResult<S> result(S state, boolean applied, ProjectionResult<S> lastNoOp) {
+        if (!applied && lastNoOp != null) {
+            return lastNoOp;
+        }
+        return ProjectionResult.projected(state);
+    }
+}
@@ -2,7 +2,6 @@ package org.ormi.priv.tfa.orderflow.cqrs;
 
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.StreamSupport;
 
 /**
  * Projector interface for projecting events onto a state.
@@ -44,41 +43,19 @@ public interface Projector<S, E extends EventEnvelope<? extends DomainEvent>> {
 
     /**
      * Projects a list of events onto the current state.
+     *
+     * <p>Stale events (sequence lower than or equal to the initial version or to a
+     * previously folded event) are skipped, and the fold stops at the first failure.</p>
      * 
      * @param current the current state
      * @param events  the events to project
      * @param initialVersion the initial version
      * @return the projected state
+     * @see ProjectionFold
      */
     default ProjectionResult<S> projectAll(Optional<S> current, Iterable<E> events,
             Optional<Long> initialVersion) {
-        Acc<S> init = new Acc<>(ProjectionResult.projected(current.orElse(null)),
-                initialVersion.orElse(0L));
-
-        return StreamSupport.stream(events.spliterator(), false)
-                .reduce(
-                        init,
-                        (acc, ev) -> {
-                            if (acc.result().isFailure())
-                                return acc;
-                            if (ev.sequence() <= acc.lastSequence())
-                                return acc;
-
-                            ProjectionResult<S> next = acc.result().flatMap(state -> project(Optional.ofNullable(state), ev));
-
-                            return new Acc<>(next, ev.sequence());
-                        },
-                        (a1, a2) -> {
-                            throw new UnsupportedOperationException(
-                                    "Parallel stream not supported for sequential projections");
-                        })
-                .result();
-    }
-
-    /**
-     * Accumulator for projection results.
-     */
-    record Acc<S>(ProjectionResult<S> result, long lastSequence) {
+        return ProjectionFold.fold(this, current, events, initialVersion.orElse(0L));
     }
 
     /**
@@ -1,5 +1,8 @@
 package org.ormi.priv.tfa.orderflow.cqrs.infra.jpa;
 
+import java.util.List;
+import java.util.UUID;
+
 import org.ormi.priv.tfa.orderflow.cqrs.EventEnvelope;
 import org.ormi.priv.tfa.orderflow.cqrs.infra.persistence.EventLogRepository;
 
@@ -7,6 +10,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.arc.DefaultBean;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -56,4 +60,25 @@ public class JpaEventLogRepository implements PanacheRepository<EventLogEntity>,
 		persist(entity);
 		return entity;
 	}
+
+    /**
+     * Relit les événements d'un agrégat entre deux versions.
+     *
+     * <p>Servi par l'index {@code ix_eventlog_aggregate}.</p>
+     *
+     * @param aggregateType le type d'agrégat
+     * @param aggregateId   l'agrégat
+     * @param afterVersion  la dernière version déjà connue (exclue)
+     * @param upToVersion   la dernière version à lire (incluse)
+     * @param limit         le nombre maximal d'événements
+     * @return les événements, dans l'ordre des versions
+     */
+	@Override
+	public List<EventLogEntity> findByAggregateVersionBetween(String aggregateType, UUID aggregateId,
+			long afterVersion, long upToVersion, int limit) {
+		return find("aggregateType = ?1 and aggregateId = ?2 and aggregateVersion > ?3 and aggregateVersion <= ?4",
+				Sort.by("aggregateVersion"), aggregateType, aggregateId, afterVersion, upToVersion)
+				.page(0, limit)
+				.list();
+	}
 }
@@ -1,5 +1,8 @@
 package org.ormi.priv.tfa.orderflow.cqrs.infra.persistence;
 
+import java.util.List;
+import java.util.UUID;
+
 import org.ormi.priv.tfa.orderflow.cqrs.EventEnvelope;
 import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
 
@@ -13,4 +16,17 @@ import org.ormi.priv.tfa.orderflow.cqrs.infra.jpa.EventLogEntity;
  */
 public interface EventLogRepository {
     EventLogEntity append(EventEnvelope<?> eventLog);
+
+    /**
+     * Événements d'un agrégat entre deux versions, dans l'ordre des versions.
+     *
+     * @param aggregateType le type d'agrégat
+     * @param aggregateId   l'agrégat
+     * @param afterVersion  la dernière version déjà connue (exclue)
+     * @param upToVersion   la dernière version à lire (incluse)
+     * @param limit         le nombre maximal d'événements
+     * @return les événements
+     */
+    List<EventLogEntity> findByAggregateVersionBetween(String aggregateType, UUID aggregateId, long afterVersion,
+            long upToVersion, int limit);
 }
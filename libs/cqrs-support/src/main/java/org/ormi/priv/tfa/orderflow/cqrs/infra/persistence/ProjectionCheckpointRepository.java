@@ -0,0 +1,15 @@
+package org.ormi.priv.tfa.orderflow.cqrs.infra.persistence;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Point de reprise d'une projection, par agrégat.
+ *
+ * <p>Le point de reprise est la séquence du dernier événement appliqué à la vue. Il
+ * doit être avancé dans la même transaction que l'écriture de la vue.</p>
+ */
+public interface ProjectionCheckpointRepository {
+    OptionalLong findLastSequence(String projection, UUID aggregateId);
+    void advance(String projection, UUID aggregateId, long sequence);
+}
@@ -0,0 +1,164 @@
+package org.ormi.priv.tfa.orderflow.cqrs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.ormi.priv.tfa.orderflow.cqrs.Projector.ProjectionResult;
+
+class ProjectionFoldTest {
+
+    private static final UUID AGGREGATE_ID = UUID.randomUUID();
+
+    private final SumProjector projector = new SumProjector();
+    private final InPlaceSumProjector inPlace = new InPlaceSumProjector();
+
+    @Test
+    void appliesEventsAfterTheInitialVersionOnly() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 10), added(2, 20), added(3, 30));
+
+        assertEquals(50, ProjectionFold.fold(projector, Optional.of(0), events, 1).getProjection());
+        assertEquals(50, ProjectionFold.fold(inPlace, Optional.of(0), events, 1).getProjection());
+    }
+
+    @Test
+    void skipsRedeliveredEvents() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 10), added(2, 20), added(2, 20), added(1, 10));
+
+        assertEquals(30, ProjectionFold.fold(projector, Optional.empty(), events, 0).getProjection());
+        assertEquals(30, ProjectionFold.fold(inPlace, Optional.empty(), events, 0).getProjection());
+    }
+
+    @Test
+    void stopsAtTheFirstFailure() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 10), added(2, -1), added(3, 30));
+
+        final ProjectionResult<Integer> result = ProjectionFold.fold(projector, Optional.of(0), events, 0);
+        final ProjectionResult<Integer> inPlaceResult = ProjectionFold.fold(inPlace, Optional.of(0), events, 0);
+
+        assertTrue(result.isFailure());
+        assertTrue(inPlaceResult.isFailure());
+        // L'événement suivant l'échec n'est pas projeté
+        assertEquals(2, projector.calls.get());
+    }
+
+    @Test
+    void keepsTheStateAcrossNoOps() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 10), added(2, 0), added(3, 5));
+
+        assertEquals(15, ProjectionFold.fold(projector, Optional.of(0), events, 0).getProjection());
+        assertEquals(15, ProjectionFold.fold(inPlace, Optional.of(0), events, 0).getProjection());
+    }
+
+    @Test
+    void returnsTheLastNoOpWhenNothingWasApplied() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 0), added(2, 0));
+
+        final ProjectionResult<Integer> result = ProjectionFold.fold(projector, Optional.of(7), events, 0);
+        final ProjectionResult<Integer> inPlaceResult = ProjectionFold.fold(inPlace, Optional.of(7), events, 0);
+
+        assertTrue(result.isNoOp());
+        assertTrue(inPlaceResult.isNoOp());
+        assertEquals("nothing to add at 2", inPlaceResult.getNoopReason());
+    }
+
+    @Test
+    void returnsTheCurrentStateWhenThereIsNothingToReplay() {
+        assertEquals(7, ProjectionFold.fold(projector, Optional.of(7), List.of(), 0).getProjection());
+        assertEquals(7, ProjectionFold.fold(inPlace, Optional.of(7), List.of(added(1, 10)), 1).getProjection());
+    }
+
+    @Test
+    void inPlaceProjectorBuildsTheStateOnce() {
+        final List<EventEnvelope<Added>> events = List.of(added(1, 1), added(2, 2), added(3, 3), added(4, 4));
+
+        assertEquals(10, ProjectionFold.fold(inPlace, Optional.empty(), events, 0).getProjection());
+        assertEquals(1, inPlace.builders.get());
+        assertEquals(1, inPlace.builds.get());
+    }
+
+    private static EventEnvelope<Added> added(long sequence, int amount) {
+        return EventEnvelope.with(new Added(amount), sequence);
+    }
+
+    /**
+     * Ajoute un montant ; nul, c'est un no-op ; négatif, un échec.
+     */
+    private record Added(int amount) implements DomainEvent {
+
+        @Override
+        public UUID aggregateId() {
+            return AGGREGATE_ID;
+        }
+
+        @Override
+        public String aggregateType() {
+            return "Counter";
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public DomainEventPayload payload() {
+            return new DomainEventPayload.Empty();
+        }
+    }
+
+    private static final class SumProjector implements Projector<Integer, EventEnvelope<Added>> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ProjectionResult<Integer> project(Optional<Integer> current, EventEnvelope<Added> ev) {
+            calls.incrementAndGet();
+            final int amount = ev.event().amount();
+            if (amount < 0) {
+                return ProjectionResult.failed("negative amount at " + ev.sequence());
+            }
+            if (amount == 0) {
+                return ProjectionResult.noOp("nothing to add at " + ev.sequence());
+            }
+            return ProjectionResult.projected(current.orElse(0) + amount);
+        }
+    }
+
+    private static final class InPlaceSumProjector
+            implements InPlaceProjector<Integer, AtomicInteger, EventEnvelope<Added>> {
+
+        private final AtomicInteger builders = new AtomicInteger();
+        private final AtomicInteger builds = new AtomicInteger();
+
+        @Override
+        public AtomicInteger builderOf(Optional<Integer> current) {
+            builders.incrementAndGet();
+            return new AtomicInteger(current.orElse(0));
+        }
+
+        @Override
+        public ProjectionResult<AtomicInteger> projectInPlace(AtomicInteger builder, EventEnvelope<Added> ev) {
+            final int amount = ev.event().amount();
+            if (amount < 0) {
+                return ProjectionResult.failed("negative amount at " + ev.sequence());
+            }
+            if (amount == 0) {
+                return ProjectionResult.noOp("nothing to add at " + ev.sequence());
+            }
+            builder.addAndGet(amount);
+            return ProjectionResult.projected(builder);
+        }
+
+        @Override
+        public Integer build(AtomicInteger builder) {
+            builds.incrementAndGet();
+            return builder.get();
+        }
+    }
+}
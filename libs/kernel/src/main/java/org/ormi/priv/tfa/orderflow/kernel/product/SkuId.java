@@ -11,6 +11,9 @@ import jakarta.validation.constraints.NotNull;
  * <p>Le constructeur compact valide le format et lève une {@link IllegalArgumentException}
  * si le format ne correspond pas au pattern attendu.</p>
  *
+ * <p>Un SKU se range dans un {@code int} positif ({@link #packed()}) : les lettres en base 26
+ * puis les chiffres en base 10. L'ordre des entiers est celui des chaînes.</p>
+ *
  * @param value le SKU unique du produit au format [A-Z]{3}-[0-9]{5}, non-null
  * @throws IllegalArgumentException si le format du SKU est invalide
  */
@@ -19,9 +22,55 @@ public record SkuId(@NotNull String value) {
     private static final java.util.regex.Pattern SKU_PATTERN =
         java.util.regex.Pattern.compile("^[A-Z]{3}-\\d{5}$");
 
+    /**
+     * Nombre de valeurs de la partie numérique.
+     */
+    public static final int DIGITS_RADIX = 100_000;
+    /**
+     * Plus grande valeur empaquetée ({@code ZZZ-99999}).
+     */
+    public static final int MAX_PACKED = 26 * 26 * 26 * DIGITS_RADIX - 1;
+
     public SkuId {
         if (!SKU_PATTERN.matcher(value).matches()) {
             throw new IllegalArgumentException("Invalid SKU format, expected [Alpha]{3}-[Digit]{5}");
         }
     }
+
+    /**
+     * @return le SKU empaqueté, entre 0 et {@link #MAX_PACKED}
+     */
+    public int packed() {
+        final int letters = ((value.charAt(0) - 'A') * 26 + (value.charAt(1) - 'A')) * 26 + (value.charAt(2) - 'A');
+        int digits = 0;
+        for (int i = 4; i < 9; i++) {
+            digits = digits * 10 + (value.charAt(i) - '0');
+        }
+        return letters * DIGITS_RADIX + digits;
+    }
+
+    /**
+     * Reconstruit un SKU empaqueté par {@link #packed()}.
+     *
+     * @param packed le SKU empaqueté
+     * @return le SKU
+     */
+    public static SkuId fromPacked(int packed) {
+        if (packed < 0 || packed > MAX_PACKED) {
+            throw new IllegalArgumentException("Packed SKU out of range: " + packed);
+        }
+        final char[] chars = new char[9];
+        int letters = packed / DIGITS_RADIX;
+        int digits = packed % DIGITS_RADIX;
+        for (int i = 8; i >= 4; i--) {
+            chars[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        chars[3] = '-';
+        for (int i = 2; i >= 0; i--) {
+            chars[i] = (char) ('A' + letters % 26);
+            letters /= 26;
+        }
+        return new SkuId(new String(chars));
+    }
 }
@@ -0,0 +1,19 @@
+package org.ormi.priv.tfa.orderflow.kernel.product.persistence;
+
+import java.util.List;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+/**
+ * Index plein texte des produits, sur leur nom et leur description.
+ *
+ * <p>L'index est dérivé des vues produit et mis à jour en différé, par lots : une entrée
+ * n'est jamais plus récente que la vue dont elle provient.</p>
+ */
+public interface ProductSearchRepository {
+    void reindex(List<ProductId> ids);
+    int reindexStale(int limit);
+    List<ProductSummary> search(String query, String skuIdPattern, int offset, int limit);
+    long count(String query, String skuIdPattern);
+}
@@ -0,0 +1,55 @@
+package org.ormi.priv.tfa.orderflow.kernel.product.persistence;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.ormi.priv.tfa.orderflow.kernel.product.ProductId;
+import org.ormi.priv.tfa.orderflow.kernel.product.SkuId;
+import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductSummary;
+
+/**
+ * Référentiel du modèle de lecture étroit des listes de produits.
+ *
+ * <p>Alimenté par la même projection que {@link ProductViewRepository}, dans la même
+ * transaction ; il ne contient que les champs affichés dans les listes.</p>
+ *
+ * <p>Chaque enregistrement attribue au produit une nouvelle position de changement,
+ * croissante dans l'ordre de validation des transactions : le flux des changements peut
+ * être lu par tranches sans rien manquer.</p>
+ */
+public interface ProductSummaryRepository {
+    void save(ProductSummary summary);
+    List<ProductSummary> findBySkuIdsOrderBySkuId(List<SkuId> skuIds);
+    List<ProductSummary> searchOrderBySkuId(String skuIdPattern, Optional<SkuId> after, int offset, int limit);
+    long countBySkuIdPattern(String skuIdPattern);
+    List<SkuOwner> findAllSkuOwners();
+    List<Change> findChangedSince(long position, int limit);
+
+    /**
+     * Attribue leur position aux changements enregistrés par {@link #save} et validés
+     * depuis : les positions deviennent visibles dans l'ordre croissant, sans que les
+     * projections aient à se sérialiser.
+     *
+     * @param limit le nombre maximal de changements
+     * @return le nombre de changements positionnés ; 0 si un autre écrivain est actif
+     */
+    int sequencePendingChanges(int limit);
+
+    /**
+     * Dernier changement d'un produit.
+     *
+     * @param position la position du changement
+     * @param summary  le résumé du produit à cette position
+     */
+    record Change(long position, ProductSummary summary) {
+    }
+
+    /**
+     * SKU d'un produit.
+     *
+     * @param productId l'identifiant du produit
+     * @param skuId     son SKU
+     */
+    record SkuOwner(ProductId productId, SkuId skuId) {
+    }
+}
@@ -18,6 +18,8 @@ import org.ormi.priv.tfa.orderflow.kernel.product.views.ProductView;
 public interface ProductViewRepository {
     void save(ProductView productView);
     Optional<ProductView> findById(ProductId id);
+    List<ProductView> findByIds(List<ProductId> ids);
+    Optional<Long> findVersionById(ProductId id);
     Optional<ProductView> findBySkuId(SkuId skuId);
     long countPaginatedViewsBySkuIdPattern(String skuIdPattern);
     List<ProductView> searchPaginatedViewsOrderBySkuId(String skuIdPattern, int page, int size);
@@ -21,6 +21,7 @@ import lombok.Getter;
  * <p>Propriétés :</p>
  * <ul>
  *   <li>{@link #id} : l'identifiant unique du produit</li>
+ *   <li>{@link #version} : version de la vue résumée (séquence du dernier événement)</li>
  *   <li>{@link #skuId} : le numéro SKU du produit</li>
  *   <li>{@link #name} : nom commercial du produit</li>
  *   <li>{@link #status} : état du cycle de vie du produit</li>
@@ -36,6 +37,8 @@ public class ProductSummary {
     @NotNull
     private final ProductId id;
     @NotNull
+    private final Long version;
+    @NotNull
     private final SkuId skuId;
     @NotBlank
     private final String name;
@@ -46,12 +49,14 @@ public class ProductSummary {
 
     private ProductSummary(
         ProductId id,
+        Long version,
         SkuId skuId,
         String name,
         ProductLifecycle status,
         Integer catalogs
     ) {
         this.id = id;
+        this.version = version;
         this.skuId = skuId;
         this.name = name;
         this.status = status;
@@ -63,7 +68,11 @@ public class ProductSummary {
     }
 
     public static final class ProductSummaryBuilder {
+        // Les listes construisent un résumé par ligne : la fabrique de validateurs est partagée
+        private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
         private ProductId id;
+        private Long version;
         private SkuId skuId;
         private String name;
         private ProductLifecycle status;
@@ -74,6 +83,11 @@ public class ProductSummary {
             return this;
         }
 
+        public ProductSummaryBuilder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public ProductSummaryBuilder skuId(SkuId skuId) {
             this.skuId = skuId;
             return this;
@@ -95,9 +109,8 @@ public class ProductSummary {
         }
 
         public ProductSummary build() {
-            ProductSummary summary = new ProductSummary(id, skuId, name, status, catalogs);
-            final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-            final var violations = validator.validate(summary);
+            ProductSummary summary = new ProductSummary(id, version, skuId, name, status, catalogs);
+            final var violations = VALIDATOR.validate(summary);
             if (!violations.isEmpty()) {
                 throw new ConstraintViolationException(violations);
             }